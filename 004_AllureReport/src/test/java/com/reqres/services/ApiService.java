@@ -7,7 +7,6 @@ import java.io.IOException;
 
 import com.reqres.config.Config;
 import com.reqres.models.User;
-import com.reqres.utils.JsonUtils;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -52,10 +51,11 @@ public class ApiService {
                 .response();
     }
 
+    public TypedResponse<User> getUser(int userId, RequestSpecification spec) {
+        return new TypedResponse<>(getUserById(userId, spec), User.class);
+    }
+
     public User getUserObjectById(int userId, RequestSpecification spec) throws IOException {
-        Response response = getUserById(userId, spec);
-        User user = JsonUtils.getObjectMapper().readValue(response.asString(), User.class);
-        
-        return user;
+        return getUser(userId, spec).getBody();
     }
 } 
\ No newline at end of file
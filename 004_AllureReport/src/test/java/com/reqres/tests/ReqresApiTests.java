@@ -1,9 +1,8 @@
 package com.reqres.tests;
 
-import io.restassured.response.Response;
-
 import com.reqres.models.User;
 import com.reqres.services.ApiService;
+import com.reqres.services.TypedResponse;
 import org.testng.annotations.Test;
 import io.qameta.allure.*;
 
@@ -17,11 +16,11 @@ public class ReqresApiTests extends BaseTest {
 	@Story("Get single user details")
 	@Test
 	public void testGetUserPass() throws Exception {
-		Response response = apiService.getUserById(2, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(2, getRequestSpec());
 
 		getSoftAssert().assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
-		User user = apiService.getUserObjectById(2, getRequestSpec());
+		User user = response.getBody();
 		getSoftAssert().assertEquals(user.getUserData().getId(), 2, "User ID should be 2");
 		getSoftAssert().assertEquals(user.getUserData().getEmail(), "janet.weaver@reqres.in", "Email should match");
 
@@ -37,11 +36,11 @@ public class ReqresApiTests extends BaseTest {
 	@Story("Get single user details")
 	@Test
 	public void testGetUserFail() throws Exception {
-		Response response = apiService.getUserById(2, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(2, getRequestSpec());
 
 		getSoftAssert().assertEquals(response.getStatusCode(), 2000, "Status code should be 200");
 
-		User user = apiService.getUserObjectById(2, getRequestSpec());
+		User user = response.getBody();
 		getSoftAssert().assertEquals(user.getUserData().getId(), 200, "User ID should be 2");
 		getSoftAssert().assertEquals(user.getUserData().getEmail(), "aajanet.weaver@reqres.in", "Email should match");
 
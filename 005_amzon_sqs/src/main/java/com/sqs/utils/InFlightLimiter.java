@@ -0,0 +1,99 @@
+package com.sqs.utils;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of asynchronous calls in flight without blocking the caller.
+ * <p>
+ * A call beyond the limit is queued and started when an earlier one completes, so
+ * one thread can submit thousands of operations while at most maxInFlight of them
+ * are on the wire at any time.
+ * <p>
+ * Waiting calls are started by a single draining thread at a time. A call that
+ * completes while the queue is being drained, even inline on the draining thread,
+ * only asks for one more pass instead of draining recursively, so a long queue of
+ * calls that fail fast cannot overflow the stack.
+ */
+public class InFlightLimiter {
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    // Drain passes requested but not yet done; the thread that raised it from 0 drains
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public InFlightLimiter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Starts the call now if a slot is free, otherwise once one frees up.
+     *
+     * @return a future completed with the outcome of the call
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> start(call, result));
+        drain();
+        return result;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    private <T> void start(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            inFlight.decrementAndGet();
+            drain();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            // Another pass, possibly further up this thread's stack, will pick it up
+            return;
+        }
+        int requests = 1;
+        do {
+            startWaiting();
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    /**
+     * Starts waiting calls while slots are free. Only the draining thread takes slots,
+     * other threads only give them back, so the limit cannot be overshot.
+     */
+    private void startWaiting() {
+        while (inFlight.get() < maxInFlight) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.sqs.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects single operations into SQS batch calls.
+ * <p>
+ * Entries are buffered until the batch holds maxEntries entries, until the next
+ * entry would take it past maxBatchBytes, or until the first buffered entry has
+ * waited lingerMillis, whichever comes first. The batch call receives the entries
+ * with ids "0".."n-1" and each caller's future is completed from its own result
+ * entry, or failed with {@link SqsBatchEntryException} when SQS rejected it.
+ * <p>
+ * A batch that fills up is sent on the thread that added the last entry. A batch
+ * that lingers is handed from the shared linger timer to a sender pool, so a slow
+ * batch call on one queue never holds up the linger flush of another.
+ * <p>
+ * {@link #flush()} and {@link #close()} return only once every batch taken from the
+ * buffer before them has been sent, wherever it is being sent, so the client behind
+ * the batch call can be closed right after.
+ *
+ * @param <T> the entry type (message body, Message to delete, ...)
+ * @param <R> the per-entry result type
+ */
+class MessageBatcher<T, R> implements AutoCloseable {
+    private static final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sqs-batch-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService lingerSender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sqs-batch-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int maxEntries;
+    private final long maxBatchBytes;
+    private final long lingerMillis;
+    private final ToLongFunction<T> sizeOf;
+    private final Function<List<T>, SqsBatchResult<R>> batchCall;
+    // Batches taken from the buffer whose batch call has not returned yet
+    private final Set<CompletableFuture<Void>> unfinishedSends = ConcurrentHashMap.newKeySet();
+
+    private List<T> entries = new ArrayList<>();
+    private List<CompletableFuture<R>> futures = new ArrayList<>();
+    private long batchBytes;
+    private ScheduledFuture<?> lingerTask;
+
+    MessageBatcher(int maxEntries, long maxBatchBytes, long lingerMillis,
+                   ToLongFunction<T> sizeOf, Function<List<T>, SqsBatchResult<R>> batchCall) {
+        this.maxEntries = maxEntries;
+        this.maxBatchBytes = maxBatchBytes;
+        this.lingerMillis = lingerMillis;
+        this.sizeOf = sizeOf;
+        this.batchCall = batchCall;
+    }
+
+    CompletableFuture<R> add(T entry) {
+        long size = sizeOf.applyAsLong(entry);
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable overflowBatch = null;
+        Runnable fullBatch = null;
+        synchronized (this) {
+            if (!entries.isEmpty() && batchBytes + size > maxBatchBytes) {
+                // This entry does not fit: send what is buffered first
+                overflowBatch = takeBatch();
+            }
+            entries.add(entry);
+            futures.add(future);
+            batchBytes += size;
+            if (entries.size() >= maxEntries || batchBytes >= maxBatchBytes) {
+                fullBatch = takeBatch();
+            } else if (entries.size() == 1) {
+                lingerTask = lingerTimer.schedule(this::flushLingering, lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (overflowBatch != null) {
+            overflowBatch.run();
+        }
+        if (fullBatch != null) {
+            fullBatch.run();
+        }
+        return future;
+    }
+
+    /**
+     * Sends whatever is buffered now, without waiting for the batch to fill up, and
+     * waits for the batches already on their way (lingering batches on the sender pool,
+     * full batches on the threads that filled them).
+     */
+    void flush() {
+        Runnable batch = takeBuffered();
+        if (batch != null) {
+            batch.run();
+        }
+        CompletableFuture.allOf(unfinishedSends.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void flushLingering() {
+        Runnable batch = takeBuffered();
+        if (batch != null) {
+            lingerSender.execute(batch);
+        }
+    }
+
+    /**
+     * @return a task sending the buffered entries, which are no longer buffered; null if there are none
+     */
+    private synchronized Runnable takeBuffered() {
+        return entries.isEmpty() ? null : takeBatch();
+    }
+
+    /**
+     * Takes the buffered entries as a batch that counts as unfinished until its batch call returns.
+     * Must be called holding the lock.
+     */
+    private Runnable takeBatch() {
+        List<T> batchEntries = entries;
+        List<CompletableFuture<R>> batchFutures = futures;
+        reset();
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        unfinishedSends.add(sent);
+        return () -> send(batchEntries, batchFutures, sent);
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void reset() {
+        entries = new ArrayList<>();
+        futures = new ArrayList<>();
+        batchBytes = 0;
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+    }
+
+    private void send(List<T> batchEntries, List<CompletableFuture<R>> batchFutures, CompletableFuture<Void> sent) {
+        SqsBatchResult<R> result = null;
+        RuntimeException failure = null;
+        try {
+            result = batchCall.apply(batchEntries);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            // Before the callers' futures complete, so a caller flushing from a callback does not wait for itself
+            unfinishedSends.remove(sent);
+            sent.complete(null);
+        }
+        if (failure != null) {
+            RuntimeException error = failure;
+            batchFutures.forEach(future -> future.completeExceptionally(error));
+            return;
+        }
+        for (int i = 0; i < batchFutures.size(); i++) {
+            String id = String.valueOf(i);
+            R success = result.getSuccessful().get(id);
+            if (success != null) {
+                batchFutures.get(i).complete(success);
+            } else if (result.getFailed().containsKey(id)) {
+                batchFutures.get(i).completeExceptionally(new SqsBatchEntryException(result.getFailed().get(id)));
+            } else {
+                batchFutures.get(i).completeExceptionally(
+                        new IllegalStateException("SQS returned no result for batch entry " + id));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sqs.utils;
+
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of SqsUtils on top of SqsAsyncClient.
+ * <p>
+ * The SqsAsyncClient comes from SqsClientRegistry, so every instance for the same
+ * region and profile shares one client and all of them share one Netty event loop
+ * group: the number of I/O threads and connections does not grow with the number
+ * of queues or test threads.
+ * <p>
+ * Requests are pipelined: callers get a CompletableFuture straight away and at
+ * most sqs.async.maxInFlight (default 50) requests per instance are on the wire,
+ * the rest wait in an {@link InFlightLimiter}.
+ */
+public class SqsAsyncUtils {
+
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    private final SqsClientRegistry.Lease<SqsAsyncClient> clientLease;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final String queueUrl;
+    private final InFlightLimiter limiter;
+
+    public SqsAsyncUtils(String queueUrl, Region region) {
+        this.queueUrl = queueUrl;
+        this.limiter = new InFlightLimiter(Integer.getInteger("sqs.async.maxInFlight", 50));
+        this.clientLease = SqsClientRegistry.acquireAsyncClient(region);
+        this.sqsAsyncClient = clientLease.client();
+    }
+
+    public CompletableFuture<SendMessageResponse> sendMessage(String messageBody) {
+        log.info("Sending message to SQS: %s", messageBody);
+        return limiter.submit(() -> sqsAsyncClient.sendMessage(SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(messageBody)
+                .build()));
+    }
+
+    public CompletableFuture<List<Message>> receiveMessages(int maxMessages, int waitTimeSeconds) {
+        return receiveMessages(maxMessages, waitTimeSeconds, null);
+    }
+
+    // Same, hiding the received messages for visibilityTimeoutSeconds (null: the queue's default)
+    public CompletableFuture<List<Message>> receiveMessages(int maxMessages, int waitTimeSeconds, Integer visibilityTimeoutSeconds) {
+        return limiter.submit(() -> sqsAsyncClient.receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .maxNumberOfMessages(Math.min(maxMessages, SqsUtils.MAX_BATCH_ENTRIES))
+                .waitTimeSeconds(waitTimeSeconds)
+                .visibilityTimeout(visibilityTimeoutSeconds)
+                .messageAttributeNames("All")
+                .build()))
+                .thenApply(ReceiveMessageResponse::messages);
+    }
+
+    public CompletableFuture<DeleteMessageResponse> deleteMessage(Message message) {
+        log.info("Deleting message: %s", message.messageId());
+        return limiter.submit(() -> sqsAsyncClient.deleteMessage(DeleteMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .receiptHandle(message.receiptHandle())
+                .build()));
+    }
+
+    // Hide (or, with 0 seconds, release) a received message for the given time
+    public CompletableFuture<ChangeMessageVisibilityResponse> changeMessageVisibility(Message message, int visibilityTimeoutSeconds) {
+        return limiter.submit(() -> sqsAsyncClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                .queueUrl(queueUrl)
+                .receiptHandle(message.receiptHandle())
+                .visibilityTimeout(visibilityTimeoutSeconds)
+                .build()));
+    }
+
+    public InFlightLimiter getLimiter() {
+        return limiter;
+    }
+
+    // Release the shared client; it is closed once no SqsAsyncUtils uses it any more
+    public void close() {
+        clientLease.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.sqs.utils;
+
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+
+/**
+ * Completes the future of a single entry that SQS rejected within an otherwise
+ * successful batch call.
+ */
+public class SqsBatchEntryException extends RuntimeException {
+    private final BatchResultErrorEntry error;
+
+    public SqsBatchEntryException(BatchResultErrorEntry error) {
+        super("SQS rejected batch entry " + error.id() + ": " + error.code() + " - " + error.message() +
+              (Boolean.TRUE.equals(error.senderFault()) ? " (sender fault)" : ""));
+        this.error = error;
+    }
+
+    public BatchResultErrorEntry getError() {
+        return error;
+    }
+
+    /**
+     * @return true when SQS reports the entry itself was invalid, so resending it will not help
+     */
+    public boolean isSenderFault() {
+        return Boolean.TRUE.equals(error.senderFault());
+    }
+}
@@ -0,0 +1,49 @@
+package com.sqs.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+
+/**
+ * Outcome of one or more SQS batch calls, per entry. Entry ids are the ones given
+ * in the request; for the list-based SqsUtils methods they are the index of the
+ * message in the input list, so a failure can be traced back to its message.
+ *
+ * @param <R> the per-entry success type (SendMessageBatchResultEntry, DeleteMessageBatchResultEntry)
+ */
+public class SqsBatchResult<R> {
+    private final Map<String, R> successful = new LinkedHashMap<>();
+    private final Map<String, BatchResultErrorEntry> failed = new LinkedHashMap<>();
+
+    void addSuccess(String id, R entry) {
+        successful.put(id, entry);
+    }
+
+    void addFailure(String id, BatchResultErrorEntry entry) {
+        failed.put(id, entry);
+    }
+
+    void addAll(SqsBatchResult<R> other) {
+        successful.putAll(other.successful);
+        failed.putAll(other.failed);
+    }
+
+    public Map<String, R> getSuccessful() {
+        return Collections.unmodifiableMap(successful);
+    }
+
+    public Map<String, BatchResultErrorEntry> getFailed() {
+        return Collections.unmodifiableMap(failed);
+    }
+
+    public boolean hasFailures() {
+        return !failed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SqsBatchResult{successful=" + successful.size() + ", failed=" + failed + "}";
+    }
+}
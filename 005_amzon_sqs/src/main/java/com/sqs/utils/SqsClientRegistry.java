@@ -0,0 +1,188 @@
+package com.sqs.utils;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Process-wide registry of SQS clients, shared and reference-counted.
+ * <p>
+ * Clients are keyed by (region, AWS profile, endpoint override), so every SqsUtils
+ * or SqsAsyncUtils that talks to the same account and region reuses one client,
+ * one connection pool and one credentials provider, however many test threads and
+ * queues there are. Each user holds a {@link Lease}; the real client is closed
+ * when the last lease is closed.
+ * <p>
+ * The profile comes from -Daws.profile (default "default") and the optional
+ * endpoint override from -Dsqs.endpoint (e.g. a local SQS emulator).
+ */
+public class SqsClientRegistry {
+    private static final Map<ClientKey, Shared<SqsClient>> syncClients = new HashMap<>();
+    private static final Map<ClientKey, Shared<SqsAsyncClient>> asyncClients = new HashMap<>();
+    // Created with the first async client, so blocking-only users never start Netty threads.
+    // Guarded by the class lock, like the maps.
+    private static SdkEventLoopGroup eventLoopGroup;
+
+    private SqsClientRegistry() {
+        // Utility class
+    }
+
+    /**
+     * @return a lease on the shared blocking client for this region and the current profile/endpoint
+     */
+    public static Lease<SqsClient> acquireClient(Region region) {
+        return acquire(syncClients, ClientKey.current(region), SqsClientRegistry::buildClient);
+    }
+
+    /**
+     * @return a lease on the shared async (Netty) client for this region and the current profile/endpoint
+     */
+    public static Lease<SqsAsyncClient> acquireAsyncClient(Region region) {
+        return acquire(asyncClients, ClientKey.current(region), SqsClientRegistry::buildAsyncClient);
+    }
+
+    /**
+     * @return the number of distinct clients currently open
+     */
+    public static synchronized int getOpenClientCount() {
+        return syncClients.size() + asyncClients.size();
+    }
+
+    private static synchronized <C> Lease<C> acquire(Map<ClientKey, Shared<C>> clients, ClientKey key,
+                                                     Function<ClientKey, Shared<C>> factory) {
+        Shared<C> shared = clients.computeIfAbsent(key, factory);
+        shared.refCount++;
+        return new Lease<>(shared.client, () -> release(clients, key, shared));
+    }
+
+    private static synchronized <C> void release(Map<ClientKey, Shared<C>> clients, ClientKey key, Shared<C> shared) {
+        if (--shared.refCount == 0) {
+            clients.remove(key, shared);
+            shared.closer.run();
+        }
+    }
+
+    private static Shared<SqsClient> buildClient(ClientKey key) {
+        var builder = SqsClient.builder()
+                .region(key.region)
+                .credentialsProvider(credentialsProvider(key));
+        if (key.endpoint != null) {
+            builder.endpointOverride(URI.create(key.endpoint));
+        }
+        SqsClient client = builder.build();
+        return new Shared<>(client, client::close);
+    }
+
+    private static Shared<SqsAsyncClient> buildAsyncClient(ClientKey key) {
+        if (eventLoopGroup == null) {
+            eventLoopGroup = SdkEventLoopGroup.builder()
+                    .numberOfThreads(Integer.getInteger("sqs.async.eventLoopThreads", 2))
+                    .build();
+        }
+        SdkAsyncHttpClient httpClient = NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(Integer.getInteger("sqs.async.maxConnections", 100))
+                .build();
+        var builder = SqsAsyncClient.builder()
+                .region(key.region)
+                .credentialsProvider(credentialsProvider(key))
+                .httpClient(httpClient);
+        if (key.endpoint != null) {
+            builder.endpointOverride(URI.create(key.endpoint));
+        }
+        SqsAsyncClient client = builder.build();
+        return new Shared<>(client, () -> {
+            client.close();
+            httpClient.close();
+        });
+    }
+
+    // AWS Credentials are configured using gimme-aws-creds
+    private static AwsCredentialsProvider credentialsProvider(ClientKey key) {
+        return ProfileCredentialsProvider.builder()
+                .profileName(key.profile)
+                .build();
+    }
+
+    /**
+     * A user's hold on a shared client. Closing the lease (more than once is harmless)
+     * never closes the client while other leases are open.
+     */
+    public static class Lease<C> implements AutoCloseable {
+        private final C client;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(C client, Runnable release) {
+            this.client = client;
+            this.release = release;
+        }
+
+        public C client() {
+            if (closed.get()) {
+                throw new IllegalStateException("SQS client lease already closed");
+            }
+            return client;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+
+    private static class Shared<C> {
+        private final C client;
+        private final Runnable closer;
+        private int refCount;
+
+        Shared(C client, Runnable closer) {
+            this.client = client;
+            this.closer = closer;
+        }
+    }
+
+    private static final class ClientKey {
+        private final Region region;
+        private final String profile;
+        private final String endpoint;
+
+        private ClientKey(Region region, String profile, String endpoint) {
+            this.region = region;
+            this.profile = profile;
+            this.endpoint = endpoint;
+        }
+
+        static ClientKey current(Region region) {
+            return new ClientKey(region, System.getProperty("aws.profile", "default"), System.getProperty("sqs.endpoint"));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey key = (ClientKey) other;
+            return region.equals(key.region) && profile.equals(key.profile) && Objects.equals(endpoint, key.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(region, profile, endpoint);
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.sqs.utils;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Long-running consumer for a queue, for validating services that produce a
+ * sustained stream of messages.
+ * <ul>
+ *   <li>N poller threads long-poll SqsUtils for up to 10 messages at a time and hand
+ *   them to the workers through an in-memory queue.</li>
+ *   <li>Workers (platform or virtual threads) run the handler. A message is
+ *   acknowledged through SqsUtils' delete batcher when the handler returns, and
+ *   released for redelivery (visibility set to failureVisibilitySeconds) when it throws.</li>
+ *   <li>Backpressure: at most maxUnfinishedMessages messages are received but not
+ *   yet handled; pollers stop receiving until workers catch up, so messages do not
+ *   sit in memory while their visibility timeout runs out.</li>
+ *   <li>Visibility extension: every message held by the consumer, queued or being
+ *   handled, has its visibility timeout renewed in batches before it expires, so
+ *   slow handlers do not cause duplicate deliveries. A message stops being held
+ *   before it is acknowledged or released, never while a renewal is in flight, so
+ *   a receipt handle is not renewed once it is on its way to being deleted.</li>
+ * </ul>
+ * {@link #stop(Duration)} interrupts workers still busy at its deadline. Once it
+ * returns, the consumer makes no more SQS calls, so SqsUtils can be closed; a handler
+ * that ignores the interrupt and finishes later leaves its message to reappear.
+ * Usage example:
+ * <pre>
+ * try (SqsConsumer consumer = SqsConsumer.builder(sqsUtils, message -&gt; verify(message))
+ *         .pollers(2).workers(16).virtualThreads(true).build()) {
+ *     consumer.start();
+ *     ...
+ * }
+ * </pre>
+ */
+public class SqsConsumer implements AutoCloseable {
+
+    /**
+     * Processes one message. Returning normally acknowledges (deletes) it; throwing releases it.
+     */
+    @FunctionalInterface
+    public interface MessageHandler {
+        void handle(Message message) throws Exception;
+    }
+
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    private static final long POLL_ERROR_BACKOFF_MILLIS = 1000;
+    private static final long STOP_GRACE_MILLIS = 2000;
+
+    private final SqsUtils sqsUtils;
+    private final MessageHandler handler;
+    private final int pollerCount;
+    private final int workerCount;
+    private final boolean virtualThreads;
+    private final int visibilityTimeoutSeconds;
+    private final int waitTimeSeconds;
+    private final int failureVisibilitySeconds;
+
+    private final Semaphore unfinishedPermits;
+    private final BlockingQueue<Message> handOff = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<String, Held> held = new ConcurrentHashMap<>();
+    // Held by the extender for a whole renewal, and by a worker to stop holding a message
+    private final ReentrantLock renewal = new ReentrantLock();
+    // Read: any SQS call made for a message; write: stop() closing the consumer's use of SqsUtils
+    private final ReentrantReadWriteLock sqsAccess = new ReentrantReadWriteLock();
+    private boolean sqsReleased; // guarded by sqsAccess
+    private final List<Thread> pollers = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService visibilityExtender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sqs-visibility-extender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder extended = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    private volatile boolean polling;
+    private volatile boolean working;
+
+    private SqsConsumer(Builder builder) {
+        this.sqsUtils = builder.sqsUtils;
+        this.handler = builder.handler;
+        this.pollerCount = builder.pollers;
+        this.workerCount = builder.workers;
+        this.virtualThreads = builder.virtualThreads;
+        this.visibilityTimeoutSeconds = builder.visibilityTimeoutSeconds;
+        this.waitTimeSeconds = builder.waitTimeSeconds;
+        this.failureVisibilitySeconds = builder.failureVisibilitySeconds;
+        this.unfinishedPermits = new Semaphore(builder.maxUnfinishedMessages);
+    }
+
+    public static Builder builder(SqsUtils sqsUtils, MessageHandler handler) {
+        return new Builder(sqsUtils, handler);
+    }
+
+    public synchronized void start() {
+        if (polling) {
+            return;
+        }
+        polling = true;
+        working = true;
+        ThreadFactory workerFactory = virtualThreads
+                ? Thread.ofVirtual().name("sqs-worker-", 0).factory()
+                : Thread.ofPlatform().name("sqs-worker-", 0).daemon(true).factory();
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = workerFactory.newThread(this::workLoop);
+            workers.add(worker);
+            worker.start();
+        }
+        for (int i = 0; i < pollerCount; i++) {
+            Thread poller = Thread.ofPlatform().name("sqs-poller-" + i).daemon(true).unstarted(this::pollLoop);
+            pollers.add(poller);
+            poller.start();
+        }
+        // Renew well before expiry: check every third of the timeout, renew what expires within half of it
+        long checkMillis = Math.max(1000, TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds) / 3);
+        visibilityExtender.scheduleWithFixedDelay(this::extendVisibility, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops receiving, lets the workers finish the messages already received (up to the
+     * timeout), sends the pending acknowledgements and releases whatever was not handled.
+     * Workers still busy at the timeout are interrupted and given a short grace period;
+     * after that the consumer no longer touches SqsUtils, even if some of them are still running.
+     */
+    public synchronized void stop(Duration timeout) {
+        if (!polling) {
+            return;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        polling = false;
+        // Cut long polls short; messages already received stay queued for the workers
+        pollers.forEach(Thread::interrupt);
+        joinAll(pollers, deadline);
+        working = false;
+        joinAll(workers, deadline);
+        List<Thread> busy = workers.stream().filter(Thread::isAlive).toList();
+        busy.forEach(Thread::interrupt);
+        joinAll(busy, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS));
+        visibilityExtender.shutdownNow();
+        try {
+            visibilityExtender.awaitTermination(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        sqsAccess.writeLock().lock();
+        try {
+            handOff.clear();
+            List<Message> unhandled = new ArrayList<>();
+            held.values().forEach(entry -> unhandled.add(entry.message));
+            if (!unhandled.isEmpty()) {
+                try {
+                    sqsUtils.changeMessageVisibility(unhandled, 0);
+                } catch (RuntimeException e) {
+                    log.error("Failed to release %d unhandled messages: %s", unhandled.size(), e.getMessage());
+                }
+            }
+            // Also waits for acknowledgements the linger timer has already handed to a sender
+            sqsUtils.flush();
+            sqsReleased = true;
+        } finally {
+            sqsAccess.writeLock().unlock();
+        }
+        long stillBusy = workers.stream().filter(Thread::isAlive).count();
+        if (stillBusy > 0) {
+            log.error("SQS consumer stopped with %d workers still in their handler", stillBusy);
+        }
+        log.info("SQS consumer stopped: %s", getStatsSummary());
+    }
+
+    @Override
+    public void close() {
+        stop(Duration.ofSeconds(waitTimeSeconds + 10L));
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getVisibilityExtensionCount() {
+        return extended.sum();
+    }
+
+    /**
+     * @return how many times pollers waited because workers were behind
+     */
+    public long getBackpressureWaitCount() {
+        return backpressureWaits.sum();
+    }
+
+    public String getStatsSummary() {
+        return "received=" + getReceivedCount() +
+               ", processed=" + getProcessedCount() +
+               ", failed=" + getFailedCount() +
+               ", queued=" + handOff.size() +
+               ", held=" + held.size() +
+               ", visibilityExtensions=" + getVisibilityExtensionCount() +
+               ", backpressureWaits=" + getBackpressureWaitCount();
+    }
+
+    private void pollLoop() {
+        while (polling) {
+            int permits = 0;
+            try {
+                if (!unfinishedPermits.tryAcquire()) {
+                    backpressureWaits.increment();
+                    unfinishedPermits.acquire();
+                }
+                permits = 1;
+                // Take as many extra slots as are free, up to a full receive
+                while (permits < SqsUtils.MAX_BATCH_ENTRIES && unfinishedPermits.tryAcquire()) {
+                    permits++;
+                }
+                List<Message> messages = sqsUtils.receiveMessages(permits, waitTimeSeconds, visibilityTimeoutSeconds);
+                long visibleUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds);
+                for (Message message : messages) {
+                    held.put(message.receiptHandle(), new Held(message, visibleUntil));
+                    handOff.add(message);
+                }
+                received.add(messages.size());
+                permits -= messages.size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!polling) {
+                    return;
+                }
+                log.error("SQS consumer receive failed, retrying: %s", e.getMessage());
+                try {
+                    Thread.sleep(POLL_ERROR_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                unfinishedPermits.release(permits);
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (working || !handOff.isEmpty()) {
+            Message message;
+            try {
+                message = handOff.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (message != null) {
+                process(message);
+            }
+        }
+    }
+
+    private void process(Message message) {
+        boolean handled = false;
+        try {
+            handler.handle(message);
+            handled = true;
+            processed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Handler failed for message %s: %s", message.messageId(), e.getMessage());
+        } finally {
+            // Waits for a renewal in flight; no later one includes this message
+            renewal.lock();
+            try {
+                held.remove(message.receiptHandle());
+            } finally {
+                renewal.unlock();
+            }
+            finish(message, handled);
+            unfinishedPermits.release();
+        }
+    }
+
+    /**
+     * Acknowledges a handled message or releases a failed one, unless stop() is done with SqsUtils.
+     */
+    private void finish(Message message, boolean handled) {
+        sqsAccess.readLock().lock();
+        try {
+            if (sqsReleased) {
+                log.error("Message %s finished after the consumer stopped; it will be redelivered", message.messageId());
+                return;
+            }
+            if (handled) {
+                sqsUtils.deleteMessageBatched(message).whenComplete((entry, error) -> {
+                    if (error != null) {
+                        log.error("Failed to acknowledge message %s: %s", message.messageId(), error.getMessage());
+                    }
+                });
+            } else {
+                try {
+                    sqsUtils.changeMessageVisibility(List.of(message), failureVisibilitySeconds);
+                } catch (RuntimeException releaseError) {
+                    log.error("Failed to release message %s: %s", message.messageId(), releaseError.getMessage());
+                }
+            }
+        } finally {
+            sqsAccess.readLock().unlock();
+        }
+    }
+
+    private void extendVisibility() {
+        renewal.lock();
+        sqsAccess.readLock().lock();
+        try {
+            if (sqsReleased) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            long renewWithinMillis = TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds) / 2;
+            List<Held> due = new ArrayList<>();
+            for (Held entry : held.values()) {
+                if (entry.visibleUntil - now <= renewWithinMillis) {
+                    due.add(entry);
+                }
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            List<Message> messages = new ArrayList<>(due.size());
+            due.forEach(entry -> messages.add(entry.message));
+            SqsBatchResult<?> result = sqsUtils.changeMessageVisibility(messages, visibilityTimeoutSeconds);
+            long visibleUntil = now + TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds);
+            result.getSuccessful().keySet().forEach(id -> due.get(Integer.parseInt(id)).visibleUntil = visibleUntil);
+            extended.add(result.getSuccessful().size());
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run retries
+            log.error("Failed to extend message visibility: %s", e.getMessage());
+        } finally {
+            sqsAccess.readLock().unlock();
+            renewal.unlock();
+        }
+    }
+
+    private static void joinAll(List<Thread> threads, long deadlineNanos) {
+        for (Thread thread : threads) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            try {
+                if (remainingMillis > 0) {
+                    thread.join(remainingMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static class Held {
+        private final Message message;
+        private volatile long visibleUntil;
+
+        Held(Message message, long visibleUntil) {
+            this.message = message;
+            this.visibleUntil = visibleUntil;
+        }
+    }
+
+    public static class Builder {
+        private final SqsUtils sqsUtils;
+        private final MessageHandler handler;
+        private int pollers = 1;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private boolean virtualThreads;
+        private int maxUnfinishedMessages = 100;
+        private int visibilityTimeoutSeconds = 30;
+        private int waitTimeSeconds = 20;
+        private int failureVisibilitySeconds = 0;
+
+        private Builder(SqsUtils sqsUtils, MessageHandler handler) {
+            this.sqsUtils = sqsUtils;
+            this.handler = handler;
+        }
+
+        public Builder pollers(int pollers) {
+            this.pollers = pollers;
+            return this;
+        }
+
+        public Builder workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Runs handlers on virtual threads, for handlers that mostly wait on I/O.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Caps messages received but not yet handled; pollers pause when it is reached.
+         */
+        public Builder maxUnfinishedMessages(int maxUnfinishedMessages) {
+            this.maxUnfinishedMessages = maxUnfinishedMessages;
+            return this;
+        }
+
+        public Builder visibilityTimeoutSeconds(int visibilityTimeoutSeconds) {
+            this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+            return this;
+        }
+
+        public Builder waitTimeSeconds(int waitTimeSeconds) {
+            this.waitTimeSeconds = waitTimeSeconds;
+            return this;
+        }
+
+        /**
+         * How long a message whose handler threw stays hidden before redelivery (0: immediately).
+         */
+        public Builder failureVisibilitySeconds(int failureVisibilitySeconds) {
+            this.failureVisibilitySeconds = failureVisibilitySeconds;
+            return this;
+        }
+
+        public SqsConsumer build() {
+            if (pollers < 1 || workers < 1 || maxUnfinishedMessages < 1 || visibilityTimeoutSeconds < 1) {
+                throw new IllegalArgumentException("pollers, workers, maxUnfinishedMessages and " +
+                                                   "visibilityTimeoutSeconds must be at least 1");
+            }
+            return new SqsConsumer(this);
+        }
+    }
+}
@@ -1,31 +1,36 @@
 package com.sqs.utils;
 
-import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
-import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class SqsUtils {
 
+    // SQS limits for a single batch call
+    public static final int MAX_BATCH_ENTRIES = 10;
+    public static final long MAX_BATCH_BYTES = 256 * 1024;
+
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    private static final long BATCH_LINGER_MILLIS = Long.getLong("sqs.batch.lingerMillis", 20);
+    private final SqsClientRegistry.Lease<SqsClient> clientLease;
     private SqsClient sqsClient;
     private String queueUrl;
+    private final MessageBatcher<String, SendMessageBatchResultEntry> sendBatcher = new MessageBatcher<>(
+            MAX_BATCH_ENTRIES, MAX_BATCH_BYTES, BATCH_LINGER_MILLIS, SqsUtils::sizeOf, this::sendBatch);
+    private final MessageBatcher<Message, DeleteMessageBatchResultEntry> deleteBatcher = new MessageBatcher<>(
+            MAX_BATCH_ENTRIES, Long.MAX_VALUE, BATCH_LINGER_MILLIS, message -> 0, this::deleteBatch);
 
     // Constructor - Initialize SQS client and queue URL
-    // AWS Credentials are configured using gimme-aws-creds
+    // The client is shared with every other SqsUtils for the same region, profile and endpoint
     public SqsUtils(String queueUrl, Region region) {
         this.queueUrl = queueUrl;
-        // Use credentials from the profile created by gimme-aws-creds
-        AwsCredentialsProvider credentialsProvider = ProfileCredentialsProvider.builder()
-                .profileName(System.getProperty("aws.profile", "default"))
-                .build();
-                
-        this.sqsClient = SqsClient.builder()
-                          .region(region)
-                          .credentialsProvider(credentialsProvider)
-                          .build();
+        this.clientLease = SqsClientRegistry.acquireClient(region);
+        this.sqsClient = clientLease.client();
     }
 
     // Method to send a JSON message
@@ -34,26 +39,89 @@ public class SqsUtils {
             .queueUrl(queueUrl)
             .messageBody(messageBody)
             .build();
-        System.out.println("Sending message to SQS: " + messageBody);
+        log.info("Sending message to SQS: %s", messageBody);
         return sqsClient.sendMessage(sendMsgRequest);
     }
 
+    // Send many messages, up to 10 per SendMessageBatch call (fewer if the batch would exceed 256 KB).
+    // Entry ids in the result are the indexes of the messages in the list.
+    public SqsBatchResult<SendMessageBatchResultEntry> sendMessages(List<String> messageBodies) {
+        log.info("Sending %d messages to SQS in batches", messageBodies.size());
+        SqsBatchResult<SendMessageBatchResultEntry> result = new SqsBatchResult<>();
+        int start = 0;
+        while (start < messageBodies.size()) {
+            int end = start;
+            long bytes = 0;
+            while (end < messageBodies.size() && end - start < MAX_BATCH_ENTRIES &&
+                   (end == start || bytes + sizeOf(messageBodies.get(end)) <= MAX_BATCH_BYTES)) {
+                bytes += sizeOf(messageBodies.get(end));
+                end++;
+            }
+            result.addAll(offsetIds(sendBatch(messageBodies.subList(start, end)), start));
+            start = end;
+        }
+        logFailures("send", result);
+        return result;
+    }
+
+    // Queue a message for the next batch; sent once 10 are queued, the batch is full, or after a short linger
+    public CompletableFuture<SendMessageBatchResultEntry> sendMessageBatched(String messageBody) {
+        return sendBatcher.add(messageBody);
+    }
+
     // Method to receive messages (simulating pod1)
     public List<Message> receiveMessages() {
-        System.out.println("Receiving messages from SQS...");
+        return receiveMessages(MAX_BATCH_ENTRIES, 5);
+    }
+
+    // Receive up to maxMessages (at most 10) in one call, long polling for up to waitTimeSeconds
+    public List<Message> receiveMessages(int maxMessages, int waitTimeSeconds) {
+        return receiveMessages(maxMessages, waitTimeSeconds, null);
+    }
+
+    // Same, hiding the received messages for visibilityTimeoutSeconds (null: the queue's default)
+    public List<Message> receiveMessages(int maxMessages, int waitTimeSeconds, Integer visibilityTimeoutSeconds) {
+        log.info("Receiving messages from SQS...");
         ReceiveMessageRequest receiveMessageRequest = ReceiveMessageRequest.builder()
             .queueUrl(queueUrl)
-            .maxNumberOfMessages(1) // Adjust as needed
-            .waitTimeSeconds(5)     // Use long polling
+            .maxNumberOfMessages(Math.min(maxMessages, MAX_BATCH_ENTRIES))
+            .waitTimeSeconds(waitTimeSeconds) // Use long polling
+            .visibilityTimeout(visibilityTimeoutSeconds)
             .build();
         List<Message> messages = sqsClient.receiveMessage(receiveMessageRequest).messages();
-        System.out.println("Received " + messages.size() + " messages.");
+        log.info("Received %d messages.", messages.size());
         return messages;
     }
 
+    // Extend (or, with 0 seconds, end) the visibility timeout of received messages, up to 10 per call.
+    // Entry ids in the result are the indexes of the messages in the list.
+    public SqsBatchResult<ChangeMessageVisibilityBatchResultEntry> changeMessageVisibility(List<Message> messages,
+                                                                                          int visibilityTimeoutSeconds) {
+        SqsBatchResult<ChangeMessageVisibilityBatchResultEntry> result = new SqsBatchResult<>();
+        for (int start = 0; start < messages.size(); start += MAX_BATCH_ENTRIES) {
+            List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>();
+            for (int i = start; i < Math.min(start + MAX_BATCH_ENTRIES, messages.size()); i++) {
+                entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(messages.get(i).receiptHandle())
+                    .visibilityTimeout(visibilityTimeoutSeconds)
+                    .build());
+            }
+            ChangeMessageVisibilityBatchResponse response = sqsClient.changeMessageVisibilityBatch(
+                ChangeMessageVisibilityBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+            response.successful().forEach(entry -> result.addSuccess(entry.id(), entry));
+            response.failed().forEach(entry -> result.addFailure(entry.id(), entry));
+        }
+        logFailures("change visibility", result);
+        return result;
+    }
+
     // Method to delete a message after processing
     public void deleteMessage(Message message) {
-        System.out.println("Deleting message: " + message.messageId());
+        log.info("Deleting message: %s", message.messageId());
         DeleteMessageRequest deleteMessageRequest = DeleteMessageRequest.builder()
             .queueUrl(queueUrl)
             .receiptHandle(message.receiptHandle())
@@ -61,10 +129,87 @@ public class SqsUtils {
         sqsClient.deleteMessage(deleteMessageRequest);
     }
 
-    // Close the SQS client when done
-    public void close() {
-        if (sqsClient != null) {
-            sqsClient.close();
+    // Delete many messages, up to 10 per DeleteMessageBatch call.
+    // Entry ids in the result are the indexes of the messages in the list.
+    public SqsBatchResult<DeleteMessageBatchResultEntry> deleteMessages(List<Message> messages) {
+        log.info("Deleting %d messages in batches", messages.size());
+        SqsBatchResult<DeleteMessageBatchResultEntry> result = new SqsBatchResult<>();
+        for (int start = 0; start < messages.size(); start += MAX_BATCH_ENTRIES) {
+            int end = Math.min(start + MAX_BATCH_ENTRIES, messages.size());
+            result.addAll(offsetIds(deleteBatch(messages.subList(start, end)), start));
         }
+        logFailures("delete", result);
+        return result;
+    }
+
+    // Queue a message for deletion in the next DeleteMessageBatch call
+    public CompletableFuture<DeleteMessageBatchResultEntry> deleteMessageBatched(Message message) {
+        return deleteBatcher.add(message);
+    }
+
+    // Send any messages and deletions still waiting in the batchers, and wait for batches already being sent
+    public void flush() {
+        sendBatcher.flush();
+        deleteBatcher.flush();
+    }
+
+    private SqsBatchResult<SendMessageBatchResultEntry> sendBatch(List<String> messageBodies) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(messageBodies.size());
+        for (int i = 0; i < messageBodies.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                .id(String.valueOf(i))
+                .messageBody(messageBodies.get(i))
+                .build());
+        }
+        SendMessageBatchResponse response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+            .queueUrl(queueUrl)
+            .entries(entries)
+            .build());
+        SqsBatchResult<SendMessageBatchResultEntry> result = new SqsBatchResult<>();
+        response.successful().forEach(entry -> result.addSuccess(entry.id(), entry));
+        response.failed().forEach(entry -> result.addFailure(entry.id(), entry));
+        return result;
+    }
+
+    // Package-private so tests can stand in for the SQS call behind the delete batcher
+    SqsBatchResult<DeleteMessageBatchResultEntry> deleteBatch(List<Message> messages) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                .id(String.valueOf(i))
+                .receiptHandle(messages.get(i).receiptHandle())
+                .build());
+        }
+        DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+            .queueUrl(queueUrl)
+            .entries(entries)
+            .build());
+        SqsBatchResult<DeleteMessageBatchResultEntry> result = new SqsBatchResult<>();
+        response.successful().forEach(entry -> result.addSuccess(entry.id(), entry));
+        response.failed().forEach(entry -> result.addFailure(entry.id(), entry));
+        return result;
+    }
+
+    // Batch ids restart at 0 for every call; shift them to the index in the caller's list
+    private static <R> SqsBatchResult<R> offsetIds(SqsBatchResult<R> batch, int offset) {
+        SqsBatchResult<R> shifted = new SqsBatchResult<>();
+        batch.getSuccessful().forEach((id, entry) -> shifted.addSuccess(String.valueOf(Integer.parseInt(id) + offset), entry));
+        batch.getFailed().forEach((id, entry) -> shifted.addFailure(String.valueOf(Integer.parseInt(id) + offset), entry));
+        return shifted;
+    }
+
+    private static void logFailures(String operation, SqsBatchResult<?> result) {
+        result.getFailed().forEach((id, error) ->
+            log.error("Batch %s failed for entry %s: %s - %s", operation, id, error.code(), error.message()));
+    }
+
+    private static long sizeOf(String messageBody) {
+        return messageBody.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // Release the shared SQS client when done; it is closed once no SqsUtils uses it any more
+    public void close() {
+        flush();
+        clientLease.close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.sqs.services;
+
+import com.sqs.utils.SqsAsyncUtils;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SqsAsyncService is the non-blocking counterpart of {@link SqsService}. Every
+ * operation returns a CompletableFuture immediately, so a single test thread can
+ * keep many sends, receives and deletes in flight across several queues instead of
+ * blocking on each call.
+ * <p>
+ * Unlike SqsService this class is not a thread-local singleton: an instance is
+ * bound to one queue and can be shared by any number of threads. All instances
+ * share one Netty event loop, and each caps its in-flight requests (see
+ * SqsAsyncUtils).
+ * <p>
+ * Usage example:
+ * <pre>
+ * SqsAsyncService service = new SqsAsyncService(queueUrl, Region.US_EAST_1);
+ * List&lt;CompletableFuture&lt;SendMessageResponse&gt;&gt; sends = bodies.stream()
+ *         .map(service::sendMessage)
+ *         .toList();
+ * CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+ * </pre>
+ */
+public class SqsAsyncService implements AutoCloseable {
+    private final SqsAsyncUtils sqsAsyncUtils;
+    private final String queueUrl;
+
+    /**
+     * Creates a service for the specified queue.
+     *
+     * @param queueUrl the URL of the SQS queue
+     * @param awsRegion the AWS region where the SQS queue is located
+     */
+    public SqsAsyncService(String queueUrl, Region awsRegion) {
+        this.queueUrl = queueUrl;
+        this.sqsAsyncUtils = new SqsAsyncUtils(queueUrl, awsRegion);
+    }
+
+    /**
+     * Sends a message to the SQS queue without waiting for the response.
+     *
+     * @param messageBody the body of the message to be sent
+     * @return a future completed with the send response, or exceptionally with an SqsException
+     */
+    public CompletableFuture<SendMessageResponse> sendMessage(String messageBody) {
+        return sqsAsyncUtils.sendMessage(messageBody);
+    }
+
+    /**
+     * Long-polls the SQS queue for messages without blocking the caller.
+     *
+     * @param maxMessages the maximum number of messages to return, at most 10
+     * @param waitTimeSeconds how long SQS may wait for messages to arrive, at most 20 seconds
+     * @return a future completed with the received messages (possibly none)
+     */
+    public CompletableFuture<List<Message>> receiveMessages(int maxMessages, int waitTimeSeconds) {
+        return sqsAsyncUtils.receiveMessages(maxMessages, waitTimeSeconds);
+    }
+
+    /**
+     * Deletes a message from the SQS queue without waiting for the response.
+     *
+     * @param message the message to be deleted
+     * @return a future completed once SQS has deleted the message
+     */
+    public CompletableFuture<DeleteMessageResponse> deleteMessage(Message message) {
+        return sqsAsyncUtils.deleteMessage(message);
+    }
+
+    /**
+     * @return the number of requests currently on the wire for this queue
+     */
+    public int getInFlightRequests() {
+        return sqsAsyncUtils.getLimiter().getInFlight();
+    }
+
+    public String getQueueUrl() {
+        return queueUrl;
+    }
+
+    /**
+     * Closes the underlying SQS client. Requests still in flight may fail.
+     */
+    @Override
+    public void close() {
+        sqsAsyncUtils.close();
+    }
+}
@@ -0,0 +1,241 @@
+package com.sqs.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqs.utils.SqsAsyncUtils;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands each test exactly the messages it is waiting for on a queue shared with
+ * other tests.
+ * <p>
+ * One background consumer per queue long-polls continuously (async, no thread is
+ * parked) and indexes what it receives by correlation id: the {@code correlationId}
+ * message attribute if present, otherwise the {@code messageId} field of a JSON
+ * body. {@link #awaitMessage(String, Duration)} returns a future that completes as
+ * soon as the matching message lands, and only that message is deleted.
+ * <p>
+ * Messages nobody is waiting for are never deleted: they are kept for
+ * sqs.matcher.unclaimedSeconds (default 30) in case their test asks for them
+ * a little later, then released (visibility timeout set to 0) so other consumers
+ * see them straight away, and so is whatever is still held when the matcher is
+ * closed. Messages are received with a visibility timeout that outlasts that hold
+ * (plus one long poll, as expiry is checked between polls), so a held message
+ * cannot reappear, be received by another consumer and then be claimed here with a
+ * stale receipt handle, which SQS would accept without deleting anything. Messages
+ * without a correlation id are left alone and reappear once that timeout ends;
+ * releasing them at once would have this consumer receive them again in a tight loop.
+ * <p>
+ * Usage example:
+ * <pre>
+ * SqsMessageMatcher matcher = SqsMessageMatcher.forQueue(queueUrl, Region.US_EAST_1);
+ * sqsService.sendMessage(json);
+ * Message message = matcher.awaitMessage(id, Duration.ofSeconds(30)).get();
+ * </pre>
+ */
+public class SqsMessageMatcher implements AutoCloseable {
+    public static final String CORRELATION_ID_ATTRIBUTE = "correlationId";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ConcurrentHashMap<String, SqsMessageMatcher> matchers = new ConcurrentHashMap<>();
+    private static final int MAX_MESSAGES_PER_POLL = 10;
+    private static final int WAIT_TIME_SECONDS = 20;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    // Extra visibility beyond the longest a message can be held, for clock skew and slow claims
+    private static final int VISIBILITY_MARGIN_SECONDS = 30;
+    private static final int MAX_VISIBILITY_TIMEOUT_SECONDS = (int) TimeUnit.HOURS.toSeconds(12);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> matchers.values().forEach(SqsMessageMatcher::close), "sqs-matcher-shutdown"));
+    }
+
+    private final SqsAsyncUtils sqsAsyncUtils;
+    private final ConcurrentHashMap<String, Wait> waiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Arrival> unclaimed = new ConcurrentHashMap<>();
+    private final long unclaimedMillis = TimeUnit.SECONDS.toMillis(Long.getLong("sqs.matcher.unclaimedSeconds", 30));
+    private final int visibilityTimeoutSeconds = (int) Math.min(MAX_VISIBILITY_TIMEOUT_SECONDS,
+            TimeUnit.MILLISECONDS.toSeconds(unclaimedMillis) + WAIT_TIME_SECONDS + VISIBILITY_MARGIN_SECONDS);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private SqsMessageMatcher(String queueUrl, Region region) {
+        this(new SqsAsyncUtils(queueUrl, region));
+    }
+
+    SqsMessageMatcher(SqsAsyncUtils sqsAsyncUtils) {
+        this.sqsAsyncUtils = sqsAsyncUtils;
+    }
+
+    /**
+     * @return the matcher for this queue, shared by every test in the JVM
+     */
+    public static SqsMessageMatcher forQueue(String queueUrl, Region region) {
+        return matchers.computeIfAbsent(queueUrl, url -> new SqsMessageMatcher(url, region));
+    }
+
+    /**
+     * Waits for the message with the given correlation id. The message is deleted from the
+     * queue once it has been matched. Concurrent waits for the same id share one future,
+     * and with it the timeout of the first wait.
+     *
+     * @param correlationId the correlation id (attribute or JSON messageId) of the expected message
+     * @param timeout how long to wait before the future fails with a TimeoutException
+     * @return a future completed with the message the moment it is received
+     */
+    public CompletableFuture<Message> awaitMessage(String correlationId, Duration timeout) {
+        startConsumer();
+        Wait wait = new Wait();
+        Wait existing = waiters.putIfAbsent(correlationId, wait);
+        if (existing != null) {
+            return existing.claimed;
+        }
+        wait.arrival.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((message, error) -> waiters.remove(correlationId, wait));
+        // The message may have landed before anybody waited for it
+        Arrival early = unclaimed.remove(correlationId);
+        if (early != null && !wait.arrival.complete(early.message)) {
+            release(early.message);
+        }
+        return wait.claimed;
+    }
+
+    /**
+     * @return the number of tests currently waiting for a message on this queue
+     */
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Stops the background consumer. Outstanding waits fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        waiters.values().forEach(wait -> wait.arrival.completeExceptionally(new IllegalStateException("Matcher closed")));
+        waiters.clear();
+        // Hand what nobody asked for back to the queue before the client goes away
+        CompletableFuture<?>[] releases = unclaimed.keySet().stream()
+                .map(unclaimed::remove)
+                .filter(Objects::nonNull)
+                .map(arrival -> release(arrival.message))
+                .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(releases).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Not released: they reappear after their visibility timeout instead
+        }
+        sqsAsyncUtils.close();
+    }
+
+    private CompletableFuture<Message> claim(Message message) {
+        return sqsAsyncUtils.deleteMessage(message).thenApply(response -> message);
+    }
+
+    private CompletableFuture<?> release(Message message) {
+        return sqsAsyncUtils.changeMessageVisibility(message, 0).exceptionally(error -> {
+            System.out.println("SQS matcher could not release message " + message.messageId() + ": " + error.getMessage());
+            return null;
+        });
+    }
+
+    private void startConsumer() {
+        if (started.compareAndSet(false, true)) {
+            poll();
+        }
+    }
+
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        sqsAsyncUtils.receiveMessages(MAX_MESSAGES_PER_POLL, WAIT_TIME_SECONDS, visibilityTimeoutSeconds).whenComplete((messages, error) -> {
+            if (error != null) {
+                System.out.println("SQS matcher receive failed, retrying: " + error.getMessage());
+                CompletableFuture.runAsync(this::poll,
+                        CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS));
+                return;
+            }
+            dispatch(messages);
+            poll();
+        });
+    }
+
+    private void dispatch(List<Message> messages) {
+        long now = System.currentTimeMillis();
+        unclaimed.forEach((correlationId, arrival) -> {
+            if (now - arrival.receivedAt > unclaimedMillis && unclaimed.remove(correlationId, arrival)) {
+                release(arrival.message);
+            }
+        });
+        for (Message message : messages) {
+            String correlationId = correlationId(message);
+            if (correlationId == null) {
+                // Not ours to match; it reappears for other consumers once its visibility timeout ends
+                continue;
+            }
+            Wait wait = waiters.get(correlationId);
+            if (wait != null && wait.arrival.complete(message)) {
+                continue;
+            }
+            Arrival arrival = new Arrival(message, now);
+            Arrival replaced = unclaimed.put(correlationId, arrival);
+            if (replaced != null) {
+                release(replaced.message);
+            }
+            // A wait registered after the lookup above checks unclaimed itself, but may have done so too early
+            Wait late = waiters.get(correlationId);
+            if (late != null && unclaimed.remove(correlationId, arrival) && !late.arrival.complete(message)) {
+                release(message);
+            }
+        }
+    }
+
+    private static String correlationId(Message message) {
+        MessageAttributeValue attribute = message.messageAttributes().get(CORRELATION_ID_ATTRIBUTE);
+        if (attribute != null && attribute.stringValue() != null) {
+            return attribute.stringValue();
+        }
+        try {
+            JsonNode id = mapper.readTree(message.body()).get("messageId");
+            return id != null && id.isTextual() ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One wait for a correlation id: the message when it lands, and the future every
+     * caller gets, completed once the message has also been deleted.
+     */
+    private class Wait {
+        private final CompletableFuture<Message> arrival = new CompletableFuture<>();
+        private final CompletableFuture<Message> claimed = arrival.thenCompose(SqsMessageMatcher.this::claim);
+    }
+
+    private static class Arrival {
+        private final Message message;
+        private final long receivedAt;
+
+        Arrival(Message message, long receivedAt) {
+            this.message = message;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.sqs.services;
+
+import com.sqs.utils.SqsAsyncUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * SqsMessageMatcher against a fake SqsAsyncUtils that hands out the messages a test
+ * delivers and records every delete and visibility change: a test's message is the
+ * only one deleted, whatever else lands on the shared queue. No SQS needed: the real
+ * client behind the fake is built but never called.
+ */
+public class SqsMessageMatcherTests {
+
+    @Test
+    public void testDeletesOnlyTheAwaitedMessage() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher = new SqsMessageMatcher(sqs);
+        try {
+            CompletableFuture<Message> mine = matcher.awaitMessage("mine", Duration.ofSeconds(5));
+            sqs.deliver(message("other-1", "h1"), message("mine", "h2"), message("other-2", "h3"));
+
+            Assert.assertEquals(mine.get(5, TimeUnit.SECONDS).receiptHandle(), "h2");
+            sqs.awaitDispatched();
+        } finally {
+            matcher.close();
+        }
+        Assert.assertEquals(sqs.deletes(), List.of("h2"), "Only the awaited message may be deleted: " + sqs.events());
+        Assert.assertTrue(sqs.events().containsAll(List.of("visibility:h1:0", "visibility:h3:0")),
+                "Messages nobody claimed should be released on close: " + sqs.events());
+    }
+
+    @Test
+    public void testMessageLandingBeforeItsWaitIsClaimedLater() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher = new SqsMessageMatcher(sqs);
+        try {
+            // Starts the consumer
+            matcher.awaitMessage("someone-else", Duration.ofSeconds(5));
+            sqs.deliver(message("early", "h1"));
+            sqs.awaitDispatched();
+            Assert.assertTrue(sqs.deletes().isEmpty(), "Nobody waited for it yet: " + sqs.events());
+
+            Message early = matcher.awaitMessage("early", Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(early.receiptHandle(), "h1");
+            Assert.assertEquals(sqs.deletes(), List.of("h1"));
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentWaitsForOneIdShareOneDelete() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher = new SqsMessageMatcher(sqs);
+        try {
+            CompletableFuture<Message> first = matcher.awaitMessage("shared", Duration.ofSeconds(5));
+            CompletableFuture<Message> second = matcher.awaitMessage("shared", Duration.ofSeconds(5));
+            sqs.deliver(message("shared", "h1"));
+
+            Assert.assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(sqs.deletes(), List.of("h1"));
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void testDuplicateDeliveryReleasesTheOlderCopy() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher = new SqsMessageMatcher(sqs);
+        try {
+            matcher.awaitMessage("someone-else", Duration.ofSeconds(5));
+            sqs.deliver(message("twice", "old"));
+            sqs.awaitDispatched();
+            sqs.deliver(message("twice", "new"));
+            sqs.awaitDispatched();
+
+            Message claimed = matcher.awaitMessage("twice", Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(claimed.receiptHandle(), "new");
+            Assert.assertEquals(sqs.deletes(), List.of("new"));
+            Assert.assertTrue(sqs.events().contains("visibility:old:0"), "The older copy should be released: " + sqs.events());
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void testUnclaimedMessageReleasedAfterHoldAndNeverDeleted() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher;
+        System.setProperty("sqs.matcher.unclaimedSeconds", "1");
+        try {
+            matcher = new SqsMessageMatcher(sqs);
+        } finally {
+            System.clearProperty("sqs.matcher.unclaimedSeconds");
+        }
+        try {
+            matcher.awaitMessage("someone-else", Duration.ofSeconds(10));
+            sqs.deliver(message("orphan", "h1"));
+            awaitCondition(() -> sqs.events().contains("visibility:h1:0"), 5000);
+
+            ExecutionException error = Assert.expectThrows(ExecutionException.class,
+                    () -> matcher.awaitMessage("orphan", Duration.ofMillis(300)).get(5, TimeUnit.SECONDS));
+            Assert.assertTrue(error.getCause() instanceof TimeoutException, "Released messages are no longer held");
+            Assert.assertTrue(sqs.deletes().isEmpty(), "An unclaimed message must never be deleted: " + sqs.events());
+        } finally {
+            matcher.close();
+        }
+    }
+
+    @Test
+    public void testReceivesWithVisibilityOutlastingTheHold() throws Exception {
+        FakeSqsAsyncUtils sqs = new FakeSqsAsyncUtils();
+        SqsMessageMatcher matcher = new SqsMessageMatcher(sqs);
+        try {
+            matcher.awaitMessage("anything", Duration.ofSeconds(5));
+            awaitCondition(() -> !sqs.receiveVisibilityTimeouts.isEmpty(), 5000);
+        } finally {
+            matcher.close();
+        }
+        // Held for sqs.matcher.unclaimedSeconds (30), checked after each long poll of up to 20 s
+        for (Integer visibilityTimeout : sqs.receiveVisibilityTimeouts) {
+            Assert.assertNotNull(visibilityTimeout, "The queue's default visibility timeout may be shorter than the hold");
+            Assert.assertTrue(visibilityTimeout > 30 + 20, "Visibility timeout " + visibilityTimeout + " s does not outlast the hold");
+        }
+    }
+
+    private static Message message(String correlationId, String receiptHandle) {
+        return Message.builder()
+                .messageId("id-" + receiptHandle)
+                .receiptHandle(receiptHandle)
+                .body("{}")
+                .messageAttributes(Map.of(SqsMessageMatcher.CORRELATION_ID_ATTRIBUTE,
+                        MessageAttributeValue.builder().dataType("String").stringValue(correlationId).build()))
+                .build();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + timeoutMillis + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Hands out each delivered list of messages from one receive, an empty list after a
+     * short wait otherwise, and records "delete:h" and "visibility:h:seconds" events in
+     * call order.
+     */
+    private static class FakeSqsAsyncUtils extends SqsAsyncUtils {
+        private final BlockingQueue<List<Message>> deliveries = new LinkedBlockingQueue<>();
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> receiveVisibilityTimeouts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final AtomicInteger taken = new AtomicInteger();
+        private final AtomicInteger receiveCalls = new AtomicInteger();
+        private volatile int lastTakenBy;
+
+        FakeSqsAsyncUtils() {
+            super("https://sqs.us-east-1.amazonaws.com/000000000000/matcher-test", Region.US_EAST_1);
+        }
+
+        void deliver(Message... messages) {
+            delivered.incrementAndGet();
+            deliveries.add(List.of(messages));
+        }
+
+        /**
+         * Waits until every delivery has been received and dispatched: the matcher only
+         * receives again once it has dispatched what the previous receive returned.
+         */
+        void awaitDispatched() throws InterruptedException {
+            awaitCondition(() -> taken.get() == delivered.get() && receiveCalls.get() > lastTakenBy, 5000);
+        }
+
+        List<String> events() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+
+        List<String> deletes() {
+            return events().stream()
+                    .filter(event -> event.startsWith("delete:"))
+                    .map(event -> event.substring("delete:".length()))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public CompletableFuture<List<Message>> receiveMessages(int maxMessages, int waitTimeSeconds, Integer visibilityTimeoutSeconds) {
+            receiveVisibilityTimeouts.add(visibilityTimeoutSeconds);
+            int call = receiveCalls.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    // Stand-in for a long poll
+                    List<Message> messages = deliveries.poll(20, TimeUnit.MILLISECONDS);
+                    if (messages == null) {
+                        return List.of();
+                    }
+                    lastTakenBy = call;
+                    taken.incrementAndGet();
+                    return messages;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return List.of();
+                }
+            });
+        }
+
+        @Override
+        public CompletableFuture<DeleteMessageResponse> deleteMessage(Message message) {
+            events.add("delete:" + message.receiptHandle());
+            return CompletableFuture.completedFuture(DeleteMessageResponse.builder().build());
+        }
+
+        @Override
+        public CompletableFuture<ChangeMessageVisibilityResponse> changeMessageVisibility(Message message, int visibilityTimeoutSeconds) {
+            events.add("visibility:" + message.receiptHandle() + ":" + visibilityTimeoutSeconds);
+            return CompletableFuture.completedFuture(ChangeMessageVisibilityResponse.builder().build());
+        }
+    }
+}
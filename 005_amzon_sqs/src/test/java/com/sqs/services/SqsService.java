@@ -1,8 +1,12 @@
 package com.sqs.services;
 
+import com.sqs.utils.SqsBatchResult;
+import com.sqs.utils.SqsConsumer;
 import com.sqs.utils.SqsUtils;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
 import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
 import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
 
 import java.util.List;
@@ -52,8 +56,10 @@ public class SqsService {
      * Initializes the SqsService with the specified queue URL and AWS region.
      * This method must be called before using other methods.
      * <p>
-     * The initialization creates a new SqsUtils instance which establishes
-     * a connection to the specified SQS queue using the AWS SDK.
+     * The initialization creates a new SqsUtils instance for the queue. The
+     * underlying SqsClient is shared with every other SqsService using the same
+     * region and AWS profile (see SqsClientRegistry); re-initializing releases
+     * the previous one.
      *
      * @param queueUrl the URL of the SQS queue
      * @param awsRegion the AWS region where the SQS queue is located
@@ -62,6 +68,9 @@ public class SqsService {
     public void initialize(String queueUrl, Region awsRegion) {
         this.queueUrl = queueUrl;
         this.awsRegion = awsRegion;
+        if (this.sqsUtils != null) {
+            this.sqsUtils.close();
+        }
         this.sqsUtils = new SqsUtils(queueUrl, awsRegion);
     }
 
@@ -86,7 +95,7 @@ public class SqsService {
      * Receives messages from the SQS queue.
      * <p>
      * This method delegates to the underlying SqsUtils to receive messages.
-     * By default, it will attempt to receive up to 1 message with a 5-second
+     * By default, it will attempt to receive up to 10 messages with a 5-second
      * long polling wait time.
      *
      * @return a list of messages received from the queue (may be empty if no messages are available)
@@ -98,6 +107,43 @@ public class SqsService {
         return sqsUtils.receiveMessages();
     }
 
+    /**
+     * Receives up to maxMessages messages (SQS allows at most 10 per call) from the SQS queue.
+     *
+     * @param maxMessages the maximum number of messages to return
+     * @param waitTimeSeconds how long to long-poll for messages, at most 20 seconds
+     * @return a list of messages received from the queue (may be empty if no messages are available)
+     */
+    public List<Message> receiveMessages(int maxMessages, int waitTimeSeconds) {
+        System.out.println("Receiving messages from queue: " + queueUrl);
+        return sqsUtils.receiveMessages(maxMessages, waitTimeSeconds);
+    }
+
+    /**
+     * Sends several messages using SendMessageBatch, 10 messages (or 256 KB) per call.
+     * <p>
+     * A batch call can succeed while some of its entries fail; check
+     * {@link SqsBatchResult#getFailed()}, whose keys are the indexes of the failed
+     * messages in messageBodies.
+     *
+     * @param messageBodies the bodies of the messages to be sent
+     * @return the per-message results
+     */
+    public SqsBatchResult<SendMessageBatchResultEntry> sendMessages(List<String> messageBodies) {
+        System.out.println("Sending " + messageBodies.size() + " messages to queue: " + queueUrl);
+        return sqsUtils.sendMessages(messageBodies);
+    }
+
+    /**
+     * Deletes several messages using DeleteMessageBatch, 10 messages per call.
+     *
+     * @param messages the messages to be deleted
+     * @return the per-message results, keyed by the index of the message in the list
+     */
+    public SqsBatchResult<DeleteMessageBatchResultEntry> deleteMessages(List<Message> messages) {
+        return sqsUtils.deleteMessages(messages);
+    }
+
     /**
      * Deletes a message from the SQS queue.
      * <p>
@@ -115,7 +161,26 @@ public class SqsService {
     }
 
     /**
-     * Closes the SQS client and releases any resources.
+     * Creates a builder for a long-running consumer of this service's queue.
+     * <p>
+     * The consumer polls on its own threads, hands messages to the handler, deletes
+     * them in batches once handled and keeps extending their visibility timeout
+     * while they are in progress. Stop it before closing this service.
+     *
+     * @param handler processes one message; throwing releases the message for redelivery
+     * @return a consumer builder bound to this service's queue
+     * @throws IllegalStateException if the service has not been initialized
+     */
+    public SqsConsumer.Builder consumer(SqsConsumer.MessageHandler handler) {
+        if (sqsUtils == null) {
+            throw new IllegalStateException("SqsService has not been initialized");
+        }
+        return SqsConsumer.builder(sqsUtils, handler);
+    }
+
+    /**
+     * Releases this service's hold on the shared SQS client, which is closed once
+     * the last service using it is closed.
      * This method should be called when the service is no longer needed.
      * <p>
      * It's important to call this method to properly clean up resources,
@@ -124,6 +189,7 @@ public class SqsService {
     public void close() {
         if (sqsUtils != null) {
             sqsUtils.close();
+            sqsUtils = null;
         }
     }
 }
\ No newline at end of file
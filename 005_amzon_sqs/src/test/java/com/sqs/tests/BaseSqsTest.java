@@ -1,5 +1,6 @@
 package com.sqs.tests;
 
+import com.sqs.services.SqsMessageMatcher;
 import com.sqs.services.SqsService;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -15,6 +16,7 @@ import software.amazon.awssdk.regions.Region;
  * This class handles the following responsibilities:
  * <ul>
  *   <li>Setting up the SQS service with the configured queue URL and region</li>
+ *   <li>Providing the queue's shared message matcher for awaiting received messages</li>
  *   <li>Configuring the AWS profile for authentication</li>
  *   <li>Creating a fresh SoftAssert instance for each test method</li>
  *   <li>Cleaning up resources after tests complete</li>
@@ -25,6 +27,7 @@ import software.amazon.awssdk.regions.Region;
  */
 public abstract class BaseSqsTest {
     protected SqsService sqsService; // SQS service instance for sending/receiving messages
+    protected SqsMessageMatcher messageMatcher; // Delivers each test the messages it waits for on the shared queue
     protected SoftAssert softAssert; // SoftAssert instance for flexible assertions
 
     // Placeholder for the SQS Queue URL. Replace with your actual SQS Queue URL.
@@ -64,6 +67,7 @@ public abstract class BaseSqsTest {
         
         sqsService = SqsService.getInstance(); // Get the singleton instance of SqsService
         sqsService.initialize(testQueueUrl, awsRegion); // Initialize the SQS service
+        messageMatcher = SqsMessageMatcher.forQueue(testQueueUrl, awsRegion); // Shared per queue, started on first wait
     }
 
     /**
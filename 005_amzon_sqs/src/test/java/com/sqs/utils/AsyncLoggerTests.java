@@ -0,0 +1,127 @@
+package com.sqs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AsyncLogger writing to its own temporary file, with many threads logging into a
+ * small ring so it wraps and fills: nothing lost or duplicated under BLOCK, every
+ * discarded event counted under DROP, and events still written once the writer stops.
+ */
+public class AsyncLoggerTests {
+    private static final Pattern EVENT = Pattern.compile("\\[INFO\\] \\[[^\\]]*\\] t(\\d+) (\\d+)$");
+    private static final Pattern DROPS = Pattern.compile("\\[WARN\\] \\[async-log-writer\\] (\\d+) log events dropped$");
+
+    @Test
+    public void testBlockWritesEveryEventOnceInOrderPerThread() throws Exception {
+        Path file = tempLogFile();
+        AsyncLogger logger = new AsyncLogger(file, 64, AsyncLogger.OverflowPolicy.BLOCK, 16, false);
+        int threads = 8;
+        int perThread = 5000;
+        logConcurrently(logger, threads, perThread);
+        logger.close();
+
+        Map<Integer, Integer> nextByThread = new HashMap<>();
+        int events = 0;
+        for (String line : Files.readAllLines(file)) {
+            Matcher matcher = EVENT.matcher(line);
+            Assert.assertTrue(matcher.find(), "Unexpected line: " + line);
+            int thread = Integer.parseInt(matcher.group(1));
+            int sequence = Integer.parseInt(matcher.group(2));
+            int expected = nextByThread.getOrDefault(thread, 0);
+            Assert.assertEquals(sequence, expected, "Events of thread " + thread + " out of order or lost");
+            nextByThread.put(thread, expected + 1);
+            events++;
+        }
+        Assert.assertEquals(events, threads * perThread);
+        Assert.assertEquals(logger.getDroppedCount(), 0);
+    }
+
+    @Test
+    public void testDropCountsEveryDiscardedEvent() throws Exception {
+        Path file = tempLogFile();
+        AsyncLogger logger = new AsyncLogger(file, 16, AsyncLogger.OverflowPolicy.DROP, 4, false);
+        int threads = 8;
+        int perThread = 5000;
+        logConcurrently(logger, threads, perThread);
+        logger.close();
+
+        int written = 0;
+        long reportedDrops = 0;
+        for (String line : Files.readAllLines(file)) {
+            Matcher drops = DROPS.matcher(line);
+            if (drops.find()) {
+                reportedDrops += Long.parseLong(drops.group(1));
+            } else {
+                Assert.assertTrue(EVENT.matcher(line).find(), "Unexpected line: " + line);
+                written++;
+            }
+        }
+        Assert.assertEquals(written + logger.getDroppedCount(), threads * perThread, "Every event is written or counted");
+        Assert.assertEquals(reportedDrops, logger.getDroppedCount(), "Every drop is reported in the log");
+    }
+
+    @Test
+    public void testIdleWriterWakesForNewEvent() throws Exception {
+        Path file = tempLogFile();
+        AsyncLogger logger = new AsyncLogger(file, 64, AsyncLogger.OverflowPolicy.DROP, 16, false);
+        try {
+            // Let the writer find the ring empty and go to sleep
+            Thread.sleep(100);
+            logger.info("t0 %d", 0);
+
+            long deadline = System.currentTimeMillis() + 500;
+            while (Files.size(file) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertTrue(Files.size(file) > 0, "The writer should be woken by the event, not by its one-second timeout");
+        } finally {
+            logger.close();
+        }
+    }
+
+    @Test
+    public void testEventsAfterCloseWrittenDirectly() throws Exception {
+        Path file = tempLogFile();
+        AsyncLogger logger = new AsyncLogger(file, 64, AsyncLogger.OverflowPolicy.BLOCK, 16, false);
+        logger.info("t0 %d", 0);
+        logger.close();
+        logger.info("t0 %d", 1);
+
+        List<String> lines = Files.readAllLines(file);
+        Assert.assertEquals(lines.size(), 2, "Lines: " + lines);
+        Assert.assertTrue(lines.get(1).endsWith("t0 1"), "Lines: " + lines);
+    }
+
+    private static void logConcurrently(AsyncLogger logger, int threads, int perThread) throws InterruptedException {
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.info("t%d %d", thread, i);
+                }
+            }, "producer-" + t));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    private static Path tempLogFile() throws IOException {
+        Path file = Files.createTempFile("async-logger", ".log");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sqs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InFlightLimiter with fake asynchronous calls. No SQS needed.
+ */
+public class InFlightLimiterTests {
+
+    @Test
+    public void testNeverExceedsLimitAndCompletesEveryCall() {
+        int maxInFlight = 8;
+        InFlightLimiter limiter = new InFlightLimiter(maxInFlight);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = i;
+            results.add(limiter.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Executor delay = CompletableFuture.delayedExecutor(ThreadLocalRandom.current().nextLong(3), TimeUnit.MILLISECONDS);
+                return CompletableFuture.supplyAsync(() -> {
+                    running.decrementAndGet();
+                    return value;
+                }, delay);
+            }));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).orTimeout(60, TimeUnit.SECONDS).join();
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(results.get(i).join().intValue(), i);
+        }
+        Assert.assertTrue(maxRunning.get() <= maxInFlight, "At most " + maxInFlight + " calls in flight, saw " + maxRunning.get());
+        Assert.assertEquals(limiter.getInFlight(), 0);
+        Assert.assertEquals(limiter.getWaiting(), 0);
+    }
+
+    @Test
+    public void testLongQueueOfFastFailuresDoesNotOverflowStack() {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        CompletableFuture<String> first = limiter.submit(() -> blocker);
+
+        // Queued behind the first call; each one fails inline as soon as it is started
+        IllegalStateException closed = new IllegalStateException("client closed");
+        List<CompletableFuture<String>> queued = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            queued.add(limiter.submit(i % 2 == 0
+                    ? () -> CompletableFuture.failedFuture(closed)
+                    : () -> {
+                        throw closed;
+                    }));
+        }
+        Assert.assertEquals(limiter.getWaiting(), queued.size());
+
+        blocker.complete("done");
+
+        Assert.assertEquals(first.join(), "done");
+        for (CompletableFuture<String> future : queued) {
+            CompletionException error = Assert.expectThrows(CompletionException.class,
+                    () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+            Assert.assertSame(error.getCause(), closed);
+        }
+        Assert.assertEquals(limiter.getInFlight(), 0);
+        Assert.assertEquals(limiter.getWaiting(), 0);
+    }
+
+    @Test
+    public void testCallSubmittedFromCompletionStarts() {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        CompletableFuture<String> chained = limiter.submit(() -> blocker)
+                .thenCompose(value -> limiter.submit(() -> CompletableFuture.completedFuture(value + " then next")));
+
+        blocker.complete("first");
+
+        Assert.assertEquals(chained.orTimeout(5, TimeUnit.SECONDS).join(), "first then next");
+        Assert.assertEquals(limiter.getInFlight(), 0);
+    }
+}
@@ -0,0 +1,217 @@
+package com.sqs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * MessageBatcher against a fake batch call: when batches are sent and how each
+ * caller's future is completed from the batch result. No SQS needed.
+ */
+public class MessageBatcherTests {
+    private static final long NO_LINGER = TimeUnit.MINUTES.toMillis(10);
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<String> senderThreads = new CopyOnWriteArrayList<>();
+
+    @BeforeMethod
+    public void resetRecording() {
+        batches.clear();
+        senderThreads.clear();
+    }
+
+    @Test
+    public void testFlushesWhenCountReached() throws Exception {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(3, Long.MAX_VALUE, NO_LINGER, body -> 0, recording(echo()));
+
+        CompletableFuture<String> first = batcher.add("a");
+        batcher.add("b");
+        Assert.assertTrue(batches.isEmpty(), "Nothing should be sent before the batch is full");
+        CompletableFuture<String> third = batcher.add("c");
+
+        Assert.assertEquals(batches, List.of(List.of("a", "b", "c")));
+        Assert.assertEquals(first.getNow(null), "a");
+        Assert.assertEquals(third.getNow(null), "c");
+    }
+
+    @Test
+    public void testFlushesBeforeEntryWouldExceedSize() throws Exception {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(10, 10, NO_LINGER, String::length, recording(echo()));
+
+        batcher.add("aaaa");
+        batcher.add("bbbb");
+        CompletableFuture<String> overflow = batcher.add("ccc");
+        Assert.assertEquals(batches, List.of(List.of("aaaa", "bbbb")), "The buffered entries go out before the one that does not fit");
+        Assert.assertFalse(overflow.isDone());
+
+        batcher.add("ddddddd");
+        Assert.assertEquals(batches.get(1), List.of("ccc", "ddddddd"), "A batch reaching the size limit is sent at once");
+        Assert.assertEquals(overflow.getNow(null), "ccc");
+    }
+
+    @Test
+    public void testLingerSendsPartialBatch() throws Exception {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(10, Long.MAX_VALUE, 50, body -> 0, recording(echo()));
+
+        CompletableFuture<String> future = batcher.add("lonely");
+
+        Assert.assertEquals(future.get(5, TimeUnit.SECONDS), "lonely");
+        Assert.assertEquals(batches, List.of(List.of("lonely")));
+        Assert.assertTrue(senderThreads.get(0).startsWith("sqs-batch-sender"),
+                "The linger flush should send off the timer thread, not on " + senderThreads.get(0));
+    }
+
+    @Test
+    public void testSlowBatchDoesNotHoldUpOtherLingerFlushes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MessageBatcher<String, String> slow = new MessageBatcher<>(10, Long.MAX_VALUE, 10, body -> 0, entries -> {
+            awaitQuietly(release);
+            return echo().apply(entries);
+        });
+        MessageBatcher<String, String> fast = new MessageBatcher<>(10, Long.MAX_VALUE, 30, body -> 0, echo());
+        try {
+            CompletableFuture<String> stuck = slow.add("slow");
+            CompletableFuture<String> other = fast.add("fast");
+
+            Assert.assertEquals(other.get(5, TimeUnit.SECONDS), "fast");
+            Assert.assertFalse(stuck.isDone());
+            release.countDown();
+            Assert.assertEquals(stuck.get(5, TimeUnit.SECONDS), "slow");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testPartialFailureMappedToEachEntry() {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(4, Long.MAX_VALUE, NO_LINGER, body -> 0, entries -> {
+            SqsBatchResult<String> result = new SqsBatchResult<>();
+            result.addSuccess("0", entries.get(0));
+            result.addFailure("1", BatchResultErrorEntry.builder()
+                    .id("1").code("InvalidMessageContents").message("bad").senderFault(true).build());
+            result.addSuccess("2", entries.get(2));
+            // Nothing at all for entry 3
+            return result;
+        });
+
+        CompletableFuture<String> ok = batcher.add("a");
+        CompletableFuture<String> rejected = batcher.add("b");
+        CompletableFuture<String> alsoOk = batcher.add("c");
+        CompletableFuture<String> missing = batcher.add("d");
+
+        Assert.assertEquals(ok.join(), "a");
+        Assert.assertEquals(alsoOk.join(), "c");
+        SqsBatchEntryException error = (SqsBatchEntryException) causeOf(rejected);
+        Assert.assertTrue(error.isSenderFault());
+        Assert.assertEquals(error.getError().code(), "InvalidMessageContents");
+        Assert.assertTrue(causeOf(missing) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testFailedBatchCallFailsEveryEntry() {
+        RuntimeException outage = new IllegalStateException("client closed");
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(2, Long.MAX_VALUE, NO_LINGER, body -> 0, entries -> {
+            throw outage;
+        });
+
+        CompletableFuture<String> first = batcher.add("a");
+        CompletableFuture<String> second = batcher.add("b");
+
+        Assert.assertSame(causeOf(first), outage);
+        Assert.assertSame(causeOf(second), outage);
+    }
+
+    @Test
+    public void testFlushSendsBufferedEntriesOnCaller() {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(10, Long.MAX_VALUE, NO_LINGER, body -> 0, recording(echo()));
+
+        CompletableFuture<String> future = batcher.add("a");
+        batcher.flush();
+        batcher.flush();
+
+        Assert.assertEquals(future.getNow(null), "a");
+        Assert.assertEquals(batches, List.of(List.of("a")), "An empty buffer should not be sent");
+        Assert.assertEquals(senderThreads, List.of(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testFlushWaitsForLingerSendInProgress() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(10, Long.MAX_VALUE, 10, body -> 0, entries -> {
+            sending.countDown();
+            awaitQuietly(release);
+            return echo().apply(entries);
+        });
+        try {
+            CompletableFuture<String> future = batcher.add("a");
+            Assert.assertTrue(sending.await(5, TimeUnit.SECONDS), "The linger flush should have started sending");
+
+            CompletableFuture<Void> flushed = CompletableFuture.runAsync(batcher::flush);
+            Thread.sleep(200);
+            Assert.assertFalse(flushed.isDone(), "flush() must not return while the lingering batch is still being sent");
+
+            release.countDown();
+            flushed.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(future.get(5, TimeUnit.SECONDS), "a");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testFlushFromCompletionCallbackDoesNotWaitForItself() throws Exception {
+        MessageBatcher<String, String> batcher = new MessageBatcher<>(10, Long.MAX_VALUE, 10, body -> 0, echo());
+
+        // Completed on the sender thread, inside the send that is being tracked
+        CompletableFuture<Void> flushedInCallback = batcher.add("a").thenRun(batcher::flush);
+
+        flushedInCallback.get(5, TimeUnit.SECONDS);
+    }
+
+    private Function<List<String>, SqsBatchResult<String>> recording(Function<List<String>, SqsBatchResult<String>> batchCall) {
+        return entries -> {
+            batches.add(List.copyOf(entries));
+            senderThreads.add(Thread.currentThread().getName());
+            return batchCall.apply(entries);
+        };
+    }
+
+    private static Function<List<String>, SqsBatchResult<String>> echo() {
+        return entries -> {
+            SqsBatchResult<String> result = new SqsBatchResult<>();
+            for (int i = 0; i < entries.size(); i++) {
+                result.addSuccess(String.valueOf(i), entries.get(i));
+            }
+            return result;
+        };
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            throw new AssertionError("Future did not fail", e);
+        }
+        throw new AssertionError("Future completed normally");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
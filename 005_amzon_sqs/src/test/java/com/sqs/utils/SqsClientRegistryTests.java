@@ -0,0 +1,97 @@
+package com.sqs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.function.Supplier;
+
+/**
+ * SqsClientRegistry reference counting, with -Dsqs.endpoint pointing at an address
+ * nothing listens on. Clients are built but never called, so no SQS or credentials
+ * are needed. Each test uses its own endpoint, so its clients are its own.
+ */
+public class SqsClientRegistryTests {
+
+    @Test
+    public void testLeasesShareOneClientUntilLastIsClosed() {
+        SqsClientRegistry.Lease<SqsClient> first = acquire("shared", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        SqsClientRegistry.Lease<SqsClient> second = acquire("shared", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        Assert.assertSame(second.client(), first.client(), "Same region, profile and endpoint share a client");
+
+        first.close();
+        SqsClientRegistry.Lease<SqsClient> third = acquire("shared", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        Assert.assertSame(third.client(), second.client(), "Still held by another lease, so kept");
+
+        SqsClient client = second.client();
+        second.close();
+        third.close();
+        try (SqsClientRegistry.Lease<SqsClient> fresh =
+                     acquire("shared", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1))) {
+            Assert.assertNotSame(fresh.client(), client, "Released by the last lease, so a new client is built");
+        }
+    }
+
+    @Test
+    public void testClosingLeaseTwiceReleasesOnce() {
+        SqsClientRegistry.Lease<SqsClient> first = acquire("twice", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        SqsClientRegistry.Lease<SqsClient> second = acquire("twice", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        SqsClient client = second.client();
+
+        first.close();
+        first.close();
+        Assert.expectThrows(IllegalStateException.class, first::client);
+
+        try (SqsClientRegistry.Lease<SqsClient> third =
+                     acquire("twice", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1))) {
+            Assert.assertSame(third.client(), client, "The second close must not release the other lease's hold");
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    public void testClientsKeyedByRegionAndEndpoint() {
+        try (SqsClientRegistry.Lease<SqsClient> east = acquire("keys", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+             SqsClientRegistry.Lease<SqsClient> west = acquire("keys", () -> SqsClientRegistry.acquireClient(Region.US_WEST_2));
+             SqsClientRegistry.Lease<SqsClient> other = acquire("other", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1))) {
+            Assert.assertNotSame(west.client(), east.client());
+            Assert.assertNotSame(other.client(), east.client());
+        }
+    }
+
+    @Test
+    public void testAsyncLeasesCountedSeparately() {
+        SqsClientRegistry.Lease<SqsAsyncClient> first =
+                acquire("async", () -> SqsClientRegistry.acquireAsyncClient(Region.US_EAST_1));
+        SqsClientRegistry.Lease<SqsAsyncClient> second =
+                acquire("async", () -> SqsClientRegistry.acquireAsyncClient(Region.US_EAST_1));
+        SqsClientRegistry.Lease<SqsClient> blocking = acquire("async", () -> SqsClientRegistry.acquireClient(Region.US_EAST_1));
+        Assert.assertSame(second.client(), first.client());
+
+        SqsAsyncClient client = first.client();
+        first.close();
+        second.close();
+        blocking.close();
+        try (SqsClientRegistry.Lease<SqsAsyncClient> fresh =
+                     acquire("async", () -> SqsClientRegistry.acquireAsyncClient(Region.US_EAST_1))) {
+            Assert.assertNotSame(fresh.client(), client);
+        }
+    }
+
+    private static <C> SqsClientRegistry.Lease<C> acquire(String endpointName, Supplier<SqsClientRegistry.Lease<C>> acquire) {
+        String previous = System.getProperty("sqs.endpoint");
+        System.setProperty("sqs.endpoint", "http://127.0.0.1:1/" + endpointName);
+        try {
+            return acquire.get();
+        } finally {
+            if (previous == null) {
+                System.clearProperty("sqs.endpoint");
+            } else {
+                System.setProperty("sqs.endpoint", previous);
+            }
+        }
+    }
+}
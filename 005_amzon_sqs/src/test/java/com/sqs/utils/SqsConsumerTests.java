@@ -0,0 +1,264 @@
+package com.sqs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SqsConsumer against a fake SqsUtils that hands out a fixed number of messages and
+ * records every acknowledgement, delete batch call and visibility change. Acknowledgements
+ * go through SqsUtils' real delete batcher. No SQS needed: the real client behind the
+ * fake is built but never called.
+ */
+public class SqsConsumerTests {
+
+    @Test
+    public void testBackpressureCapsUnfinishedMessages() throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        try (FakeSqsUtils sqs = new FakeSqsUtils(200)) {
+            SqsConsumer consumer = SqsConsumer.builder(sqs, message -> go.await())
+                    .workers(2).maxUnfinishedMessages(3).waitTimeSeconds(1).build();
+            consumer.start();
+            try {
+                awaitCondition(() -> consumer.getBackpressureWaitCount() > 0, 5000);
+                Thread.sleep(200);
+                Assert.assertEquals(consumer.getReceivedCount(), 3, "No more than maxUnfinishedMessages may be received while workers are busy");
+
+                go.countDown();
+                awaitCondition(() -> consumer.getProcessedCount() == 200, 10_000);
+            } finally {
+                go.countDown();
+                consumer.stop(Duration.ofSeconds(5));
+            }
+            Assert.assertEquals(sqs.deleted().size(), 200, "Every message should be acknowledged once");
+        }
+    }
+
+    @Test
+    public void testHeldMessagesExtendedButNotOnceAcknowledged() throws Exception {
+        try (FakeSqsUtils sqs = new FakeSqsUtils(4)) {
+            // 3 s timeout: checked every second, renewed when 1.5 s or less are left, so after about 2 s
+            SqsConsumer consumer = SqsConsumer.builder(sqs, message -> Thread.sleep(2600))
+                    .workers(4).visibilityTimeoutSeconds(3).waitTimeSeconds(1).build();
+            consumer.start();
+            try {
+                awaitCondition(() -> consumer.getProcessedCount() == 4, 10_000);
+            } finally {
+                consumer.stop(Duration.ofSeconds(5));
+            }
+
+            Assert.assertTrue(consumer.getVisibilityExtensionCount() >= 4, "Each slow message should have been renewed");
+            Set<String> acknowledged = new HashSet<>();
+            for (String event : sqs.events()) {
+                String[] parts = event.split(":");
+                if (parts[0].equals("ack")) {
+                    acknowledged.add(parts[1]);
+                } else if (parts[0].equals("visibility")) {
+                    Assert.assertFalse(acknowledged.contains(parts[1]), "Renewed " + parts[1] + " after queueing its delete: " + sqs.events());
+                }
+            }
+            Assert.assertEquals(acknowledged.size(), 4);
+            Assert.assertEquals(sqs.deleted().size(), 4);
+        }
+    }
+
+    @Test
+    public void testStopInterruptsWorkersAndThenLeavesSqsAlone() throws Exception {
+        CountDownLatch stuckStarted = new CountDownLatch(1);
+        CountDownLatch unstick = new CountDownLatch(1);
+        try (FakeSqsUtils sqs = new FakeSqsUtils(2)) {
+            SqsConsumer consumer = SqsConsumer.builder(sqs, message -> {
+                        if (message.messageId().equals("m1")) {
+                            stuckStarted.countDown();
+                            awaitUninterruptibly(unstick);
+                        } else {
+                            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                        }
+                    })
+                    .workers(2).waitTimeSeconds(1).build();
+            consumer.start();
+            Assert.assertTrue(stuckStarted.await(5, TimeUnit.SECONDS));
+            awaitCondition(() -> consumer.getReceivedCount() == 2, 5000);
+
+            long start = System.nanoTime();
+            consumer.stop(Duration.ofMillis(200));
+            long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            sqs.markReleased();
+
+            Assert.assertTrue(stopMillis < 5000, "stop() should not wait for a worker ignoring interrupts, took " + stopMillis + " ms");
+            Assert.assertEquals(consumer.getFailedCount(), 1, "The interruptible handler should have been interrupted");
+            Assert.assertTrue(sqs.events().contains("visibility:h1:0"), "The message still being handled should be released: " + sqs.events());
+            Assert.assertTrue(sqs.events().contains("flush"));
+
+            unstick.countDown();
+            Thread.sleep(300);
+            Assert.assertEquals(sqs.callsAfterRelease.get(), 0, "No SQS calls after stop() returned: " + sqs.events());
+        } finally {
+            unstick.countDown();
+        }
+    }
+
+    @Test
+    public void testStopWaitsForAcknowledgementsBeingSent() throws Exception {
+        try (FakeSqsUtils sqs = new FakeSqsUtils(3)) {
+            sqs.deleteDelayMillis = 500;
+            SqsConsumer consumer = SqsConsumer.builder(sqs, message -> { })
+                    .workers(3).waitTimeSeconds(1).build();
+            consumer.start();
+            awaitCondition(() -> consumer.getProcessedCount() == 3, 5000);
+            Assert.assertTrue(sqs.deleteStarted.await(5, TimeUnit.SECONDS), "The linger timer should be sending acknowledgements");
+
+            consumer.stop(Duration.ofSeconds(5));
+            sqs.markReleased();
+
+            Assert.assertEquals(sqs.deleted().size(), 3, "Every acknowledgement should be sent before stop() returns: " + sqs.events());
+            Assert.assertEquals(sqs.callsAfterRelease.get(), 0, "No SQS calls after stop() returned: " + sqs.events());
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + timeoutMillis + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands out messages m1..mN (receipt handles h1..hN) and records "ack:h" (delete
+     * queued), "delete:h" (delete batch call done), "visibility:h:seconds" and "flush"
+     * events in call order.
+     */
+    private static class FakeSqsUtils extends SqsUtils implements AutoCloseable {
+        private final AtomicInteger remaining;
+        private final AtomicInteger lastId = new AtomicInteger();
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger callsAfterRelease = new AtomicInteger();
+        private final CountDownLatch deleteStarted = new CountDownLatch(1);
+        private volatile long deleteDelayMillis;
+        private volatile boolean released;
+
+        FakeSqsUtils(int messages) {
+            super("https://sqs.us-east-1.amazonaws.com/000000000000/consumer-test", Region.US_EAST_1);
+            this.remaining = new AtomicInteger(messages);
+        }
+
+        /**
+         * Marks the point where the caller would close SqsUtils; any later call is counted.
+         */
+        void markReleased() {
+            released = true;
+        }
+
+        List<String> events() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+
+        Set<String> deleted() {
+            Set<String> deleted = new HashSet<>();
+            events().stream().filter(event -> event.startsWith("delete:")).forEach(deleted::add);
+            return deleted;
+        }
+
+        @Override
+        public List<Message> receiveMessages(int maxMessages, int waitTimeSeconds, Integer visibilityTimeoutSeconds) {
+            List<Message> messages = new ArrayList<>();
+            while (messages.size() < maxMessages && remaining.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                int id = lastId.incrementAndGet();
+                messages.add(Message.builder().messageId("m" + id).receiptHandle("h" + id).body("{}").build());
+            }
+            if (messages.isEmpty()) {
+                // Stand-in for a long poll that finds nothing
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Receive aborted", e);
+                }
+            }
+            return messages;
+        }
+
+        @Override
+        public SqsBatchResult<ChangeMessageVisibilityBatchResultEntry> changeMessageVisibility(List<Message> messages,
+                                                                                              int visibilityTimeoutSeconds) {
+            SqsBatchResult<ChangeMessageVisibilityBatchResultEntry> result = new SqsBatchResult<>();
+            for (int i = 0; i < messages.size(); i++) {
+                record("visibility:" + messages.get(i).receiptHandle() + ":" + visibilityTimeoutSeconds);
+                result.addSuccess(String.valueOf(i), ChangeMessageVisibilityBatchResultEntry.builder().id(String.valueOf(i)).build());
+            }
+            return result;
+        }
+
+        @Override
+        public CompletableFuture<DeleteMessageBatchResultEntry> deleteMessageBatched(Message message) {
+            record("ack:" + message.receiptHandle());
+            return super.deleteMessageBatched(message);
+        }
+
+        @Override
+        SqsBatchResult<DeleteMessageBatchResultEntry> deleteBatch(List<Message> messages) {
+            deleteStarted.countDown();
+            if (deleteDelayMillis > 0) {
+                try {
+                    Thread.sleep(deleteDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            SqsBatchResult<DeleteMessageBatchResultEntry> result = new SqsBatchResult<>();
+            for (int i = 0; i < messages.size(); i++) {
+                record("delete:" + messages.get(i).receiptHandle());
+                result.addSuccess(String.valueOf(i), DeleteMessageBatchResultEntry.builder().id(String.valueOf(i)).build());
+            }
+            return result;
+        }
+
+        @Override
+        public void flush() {
+            record("flush");
+            super.flush();
+        }
+
+        private void record(String event) {
+            if (released) {
+                callsAfterRelease.incrementAndGet();
+            }
+            events.add(event);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.reqres.services;
 
 import com.reqres.models.User;
-import com.reqres.utils.JsonUtils;
 
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -52,10 +51,11 @@ public class ApiService {
                 .response();
     }
 
+    public TypedResponse<User> getUser(int userId, RequestSpecification spec) {
+        return new TypedResponse<>(getUserById(userId, spec), User.class);
+    }
+
     public User getUserObjectById(int userId, RequestSpecification spec) throws IOException {
-        Response response = getUserById(userId, spec);
-        User user = JsonUtils.getObjectMapper().readValue(response.asString(), User.class);
-        
-        return user;
+        return getUser(userId, spec).getBody();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.testng.annotations.Test;
 
 import com.reqres.models.User;
 import com.reqres.services.ApiService;
+import com.reqres.services.TypedResponse;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
@@ -11,7 +12,6 @@ import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
-import io.restassured.response.Response;
 
 @Epic("Reqres API Testing")
 @Feature("User Management")
@@ -24,11 +24,11 @@ public class ReqresApiTests extends BaseTest {
 	@Severity(SeverityLevel.CRITICAL)
 	@Description("Test to verify that a user can be successfully retrieved by ID")
 	public void testGetUserPass() throws Exception {
-		Response response = apiService.getUserById(2, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(2, getRequestSpec());
 
 		getSoftAssert().assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
-		User user = apiService.getUserObjectById(2, getRequestSpec());
+		User user = response.getBody();
 		getSoftAssert().assertEquals(user.getUserData().getId(), 2, "User ID should be 2");
 		getSoftAssert().assertEquals(user.getUserData().getEmail(), "janet.weaver@reqres.in", "Email should match");
 
@@ -43,9 +43,9 @@ public class ReqresApiTests extends BaseTest {
 	@Severity(SeverityLevel.NORMAL)
 	@Description("Test to verify system behavior when retrieving a non-existent user")
 	public void testGetUserFail() throws Exception {
-		Response response = apiService.getUserById(2, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(2, getRequestSpec());
 		getSoftAssert().assertEquals(response.getStatusCode(), 2000, "Status code should be 200");
-		apiService.getUserObjectById(2, getRequestSpec());
+		response.getBody();
 
 		assertAll();
 	}
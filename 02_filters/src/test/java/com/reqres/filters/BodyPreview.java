@@ -0,0 +1,86 @@
+package com.reqres.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.reqres.utils.JsonUtils;
+
+import io.restassured.response.Response;
+
+/**
+ * Size-capped view of a response body for logging.
+ * <p>
+ * Only the bytes that will be logged are copied when the preview is created.
+ * Decoding and optional pretty-printing happen in {@link #toString()}, which the
+ * async logger calls on its writer thread when the line is actually written.
+ * Large JSON bodies keep their head and tail so both ends of big arrays stay
+ * visible, other text keeps its head, and binary bodies are only described.
+ */
+final class BodyPreview {
+    private final byte[] head;
+    private final byte[] tail;
+    private final int totalBytes;
+    private final String contentType;
+    private final boolean prettyPrint;
+
+    private BodyPreview(byte[] head, byte[] tail, int totalBytes, String contentType, boolean prettyPrint) {
+        this.head = head;
+        this.tail = tail;
+        this.totalBytes = totalBytes;
+        this.contentType = contentType;
+        this.prettyPrint = prettyPrint;
+    }
+
+    static BodyPreview of(Response response, int maxBytes, boolean prettyPrint) {
+        String contentType = response.getContentType() == null ? "" : response.getContentType().toLowerCase();
+        byte[] body = response.asByteArray();
+        if (!isText(contentType)) {
+            return new BodyPreview(new byte[0], new byte[0], body.length, contentType, false);
+        }
+        if (body.length <= maxBytes) {
+            return new BodyPreview(body, new byte[0], body.length, contentType, prettyPrint);
+        }
+        if (contentType.contains("json")) {
+            int half = maxBytes / 2;
+            return new BodyPreview(Arrays.copyOf(body, half),
+                                   Arrays.copyOfRange(body, body.length - half, body.length),
+                                   body.length, contentType, false);
+        }
+        return new BodyPreview(Arrays.copyOf(body, maxBytes), new byte[0], body.length, contentType, false);
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType.isEmpty() || contentType.contains("json") || contentType.contains("xml") ||
+               contentType.contains("text") || contentType.contains("html") ||
+               contentType.contains("javascript") || contentType.contains("x-www-form-urlencoded");
+    }
+
+    @Override
+    public String toString() {
+        if (!isText(contentType)) {
+            return "<binary body, " + totalBytes + " bytes, " + contentType + ">";
+        }
+        String headText = new String(head, StandardCharsets.UTF_8);
+        int omitted = totalBytes - head.length - tail.length;
+        if (omitted <= 0 && tail.length == 0) {
+            return prettyPrint ? pretty(headText) : headText;
+        }
+        StringBuilder text = new StringBuilder(headText)
+                .append(" ...[").append(omitted).append(" of ").append(totalBytes).append(" bytes omitted]... ");
+        if (tail.length > 0) {
+            text.append(new String(tail, StandardCharsets.UTF_8));
+        }
+        return text.toString();
+    }
+
+    private String pretty(String text) {
+        if (!contentType.contains("json")) {
+            return text;
+        }
+        try {
+            return JsonUtils.getObjectMapper().writeValueAsString(JsonUtils.getObjectMapper().readTree(text));
+        } catch (Exception e) {
+            return text;
+        }
+    }
+}
@@ -5,25 +5,45 @@ import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.response.Response;
 
+/**
+ * Configurable request/response logging filter, printing through RestAssured's
+ * log filters to stdout.
+ * <p>
+ * The RestAssured loggers are created once in the constructor and are stateless,
+ * so a single instance can be shared by all threads. They are driven with a context
+ * that hands back the response already received, so the request is sent only once.
+ * When nothing needs to be logged the filter only forwards the call and allocates nothing.
+ */
 public class CustomLoggingFilter implements Filter {
 
-    private final LogDetail requestLogDetail;
-    private final LogDetail responseLogDetail;
+    private static final int NO_STATUS_CODE = -1;
+
     private final boolean logOnFailureOnly;
     private final String methodToLog;
-    private final Integer statusCodeToLog;
+    private final int statusCodeToLog;
+
+    // Precomputed logging plan; null means "don't log"
+    private final Filter requestLogger;
+    private final Filter responseLogger;
+    private final boolean needsFullLogCheck;
+
+    private final Filter fullRequestLogger = new RequestLoggingFilter(LogDetail.ALL);
+    private final Filter fullResponseLogger = new ResponseLoggingFilter(LogDetail.ALL);
 
     // Constructor to configure logging
     public CustomLoggingFilter(LogDetail requestLogDetail, LogDetail responseLogDetail,
                                boolean logOnFailureOnly, String methodToLog, Integer statusCodeToLog) {
-        this.requestLogDetail = requestLogDetail;
-        this.responseLogDetail = responseLogDetail;
         this.logOnFailureOnly = logOnFailureOnly;
         this.methodToLog = methodToLog;
-        this.statusCodeToLog = statusCodeToLog;
+        this.statusCodeToLog = statusCodeToLog == null ? NO_STATUS_CODE : statusCodeToLog;
+
+        this.requestLogger = requestLogDetail == null ? null : new RequestLoggingFilter(requestLogDetail);
+        this.responseLogger = responseLogDetail == null ? null : new ResponseLoggingFilter(responseLogDetail);
+        this.needsFullLogCheck = logOnFailureOnly || methodToLog != null || statusCodeToLog != null;
     }
 
     @Override
@@ -32,40 +52,80 @@ public class CustomLoggingFilter implements Filter {
                            FilterContext ctx) {
 
         // Log Request if specified
-        if (requestLogDetail != null) {
-            new RequestLoggingFilter(requestLogDetail).filter(requestSpec, responseSpec, ctx);
+        if (requestLogger != null) {
+            requestLogger.filter(requestSpec, responseSpec, new ReceivedResponseContext(ctx, null));
         }
 
         // Proceed with the request and get the response
         Response response = ctx.next(requestSpec, responseSpec);
 
-        // Log Response if specified
-        if (responseLogDetail != null) {
-            new ResponseLoggingFilter(responseLogDetail)
-                .filter(requestSpec, responseSpec, ctx); // Use the original FilterContext
-        }
-
-        // Log only on failure
-        if (logOnFailureOnly && (response.statusCode() < 200 || response.statusCode() >= 300)) {
-            new RequestLoggingFilter(LogDetail.ALL).filter(requestSpec, responseSpec, ctx);
-            new ResponseLoggingFilter(LogDetail.ALL).filter(requestSpec, responseSpec, ctx);
+        // Log Response if specified; the logger may hand back a copy with the body re-buffered
+        if (responseLogger != null) {
+            response = responseLogger.filter(requestSpec, responseSpec, new ReceivedResponseContext(ctx, response));
         }
 
-        // Log specific HTTP Method or Status Code
-        if ((methodToLog != null && methodToLog.equalsIgnoreCase(requestSpec.getMethod())) ||
-            (statusCodeToLog != null && response.statusCode() == statusCodeToLog)) {
-            new RequestLoggingFilter(LogDetail.ALL).filter(requestSpec, responseSpec, ctx);
-            new ResponseLoggingFilter(LogDetail.ALL).filter(requestSpec, responseSpec, ctx);
+        // Log everything once on failure, or for a specific HTTP Method or Status Code
+        if (needsFullLogCheck && shouldLogFully(requestSpec, response)) {
+            fullRequestLogger.filter(requestSpec, responseSpec, new ReceivedResponseContext(ctx, null));
+            response = fullResponseLogger.filter(requestSpec, responseSpec, new ReceivedResponseContext(ctx, response));
         }
 
         return response;
     }
 
-  
+    private boolean shouldLogFully(FilterableRequestSpecification requestSpec, Response response) {
+        int statusCode = response.statusCode();
+        return (logOnFailureOnly && (statusCode < 200 || statusCode >= 300)) ||
+               (methodToLog != null && methodToLog.equalsIgnoreCase(requestSpec.getMethod())) ||
+               (statusCodeToLog != NO_STATUS_CODE && statusCode == statusCodeToLog);
+    }
 
     public static CustomLoggingFilter logHeadersOnly() {
         return new CustomLoggingFilter(LogDetail.HEADERS, LogDetail.HEADERS, false, null, null);
     }
 
-   
+    /**
+     * Lets a RestAssured logging filter run without continuing the chain: next()
+     * returns the response that has already been received (null before sending).
+     */
+    private static final class ReceivedResponseContext implements FilterContext {
+        private final FilterContext ctx;
+        private final Response response;
+
+        ReceivedResponseContext(FilterContext ctx, Response response) {
+            this.ctx = ctx;
+            this.response = response;
+        }
+
+        @Override
+        public Response next(FilterableRequestSpecification requestSpec,
+                             FilterableResponseSpecification responseSpec) {
+            return response;
+        }
+
+        @Override
+        public Response send(RequestSender requestSender) {
+            return ctx.send(requestSender);
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            ctx.setValue(name, value);
+        }
+
+        @Override
+        public <T> T getValue(String name) {
+            return ctx.getValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name) {
+            return ctx.hasValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name, Object value) {
+            return ctx.hasValue(name, value);
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.reqres.filters;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+/**
+ * Groups requests by HTTP method and the path as written in the test, before path
+ * parameters are filled in and without the query string (e.g. {@code GET /users/{id}}).
+ */
+final class EndpointKey {
+
+    private EndpointKey() {
+        // Utility class
+    }
+
+    static String of(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        int queryStart = path.indexOf('?');
+        return requestSpec.getMethod() + " " + (queryStart < 0 ? path : path.substring(0, queryStart));
+    }
+}
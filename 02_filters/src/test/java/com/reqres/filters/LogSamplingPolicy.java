@@ -0,0 +1,137 @@
+package com.reqres.filters;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.specification.FilterableRequestSpecification;
+
+/**
+ * Decides which requests a logging filter actually logs, so log volume stays flat
+ * as throughput grows.
+ * <p>
+ * A request is logged when it is a failure (non-2xx) and failures are always logged,
+ * when it is slower than the configured threshold, or when it passes both the 1-in-N
+ * sampler and the rate limit (a token bucket allowing K logs per minute), both kept per
+ * endpoint. A policy holds its own counters and is thread-safe. The decision is made once
+ * per request and stored on the request's filter context, so request and response filters
+ * that share a policy always log the same requests:
+ * <pre>
+ * LogSamplingPolicy sampling = LogSamplingPolicy.oneIn(100).perEndpointPerMinute(5).slowerThan(Duration.ofSeconds(2));
+ * given().filters(RequestLoggingFilter.logAll().withSampling(sampling),
+ *                 ResponseLoggingFilter.logAll().withSampling(sampling))
+ * </pre>
+ * The builder methods return a new policy with fresh counters.
+ */
+public class LogSamplingPolicy {
+    private static final AtomicLong policyIds = new AtomicLong();
+
+    private final int sampleEvery;
+    private final int perEndpointPerMinute;
+    private final boolean alwaysLogFailures;
+    private final long slowThresholdNanos;
+    private final String decisionKey = LogSamplingPolicy.class.getName() + ".decision." + policyIds.incrementAndGet();
+    private final ConcurrentHashMap<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+
+    private LogSamplingPolicy(int sampleEvery, int perEndpointPerMinute, boolean alwaysLogFailures, long slowThresholdNanos) {
+        this.sampleEvery = sampleEvery;
+        this.perEndpointPerMinute = perEndpointPerMinute;
+        this.alwaysLogFailures = alwaysLogFailures;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    /**
+     * Logs every request, but still lets failures and slow outliers through any
+     * limits added later.
+     */
+    public static LogSamplingPolicy all() {
+        return new LogSamplingPolicy(1, 0, true, 0);
+    }
+
+    public static LogSamplingPolicy oneIn(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least 1, was " + n);
+        }
+        return new LogSamplingPolicy(n, 0, true, 0);
+    }
+
+    public LogSamplingPolicy perEndpointPerMinute(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Per-endpoint limit must be at least 1, was " + limit);
+        }
+        return new LogSamplingPolicy(sampleEvery, limit, alwaysLogFailures, slowThresholdNanos);
+    }
+
+    public LogSamplingPolicy slowerThan(Duration threshold) {
+        return new LogSamplingPolicy(sampleEvery, perEndpointPerMinute, alwaysLogFailures, threshold.toNanos());
+    }
+
+    public LogSamplingPolicy sampleFailuresToo() {
+        return new LogSamplingPolicy(sampleEvery, perEndpointPerMinute, false, slowThresholdNanos);
+    }
+
+    /**
+     * Returns whether the current request should be logged. The first filter to ask
+     * decides; later filters on the same request get the same answer.
+     */
+    public boolean shouldLog(FilterableRequestSpecification requestSpec, FilterContext ctx,
+                             int statusCode, long elapsedNanos) {
+        Boolean decided = ctx.getValue(decisionKey);
+        if (decided == null) {
+            decided = decide(requestSpec, statusCode, elapsedNanos);
+            ctx.setValue(decisionKey, decided);
+        }
+        return decided;
+    }
+
+    private boolean decide(FilterableRequestSpecification requestSpec, int statusCode, long elapsedNanos) {
+        if (alwaysLogFailures && (statusCode < 200 || statusCode >= 300)) {
+            return true;
+        }
+        if (slowThresholdNanos > 0 && elapsedNanos >= slowThresholdNanos) {
+            return true;
+        }
+        if (sampleEvery == 1 && perEndpointPerMinute == 0) {
+            return true;
+        }
+        EndpointState endpoint = endpoints.computeIfAbsent(EndpointKey.of(requestSpec), key -> new EndpointState());
+        if (sampleEvery > 1 && endpoint.seen.getAndIncrement() % sampleEvery != 0) {
+            return false;
+        }
+        return perEndpointPerMinute == 0 || endpoint.bucket.tryAcquire();
+    }
+
+    private class EndpointState {
+        private final AtomicLong seen = new AtomicLong();
+        private final TokenBucket bucket = perEndpointPerMinute > 0 ? new TokenBucket(perEndpointPerMinute) : null;
+    }
+
+    /**
+     * Allows up to {@code capacity} logs per minute, refilled continuously.
+     */
+    private static class TokenBucket {
+        private static final long REFILL_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+        private final int capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * (double) capacity / REFILL_PERIOD_NANOS);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
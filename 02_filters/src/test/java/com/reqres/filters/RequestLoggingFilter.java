@@ -1,5 +1,6 @@
 package com.reqres.filters;
 
+import com.reqres.logging.AsyncLogger;
 import io.restassured.filter.Filter;
 import io.restassured.filter.FilterContext;
 import io.restassured.filter.log.LogDetail;
@@ -8,14 +9,32 @@ import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
 
 public class RequestLoggingFilter implements Filter {
+    private static final AsyncLogger log = AsyncLogger.getInstance();
     private final LogDetail logDetail;
     private final boolean logOnFailureOnly;
     private final String methodToLog;
+    private final LogSamplingPolicy sampling;
 
     public RequestLoggingFilter(LogDetail logDetail, boolean logOnFailureOnly, String methodToLog) {
+        this(logDetail, logOnFailureOnly, methodToLog, null);
+    }
+
+    private RequestLoggingFilter(LogDetail logDetail, boolean logOnFailureOnly, String methodToLog,
+                                 LogSamplingPolicy sampling) {
         this.logDetail = logDetail;
         this.logOnFailureOnly = logOnFailureOnly;
         this.methodToLog = methodToLog;
+        this.sampling = sampling;
+    }
+
+    /**
+     * Returns a copy of this filter that only logs requests selected by the given policy.
+     * The request is then logged after its response arrives, since the decision depends
+     * on the status code and latency. Pass the same policy to the response filter to
+     * log requests and responses as pairs.
+     */
+    public RequestLoggingFilter withSampling(LogSamplingPolicy policy) {
+        return new RequestLoggingFilter(logDetail, logOnFailureOnly, methodToLog, policy);
     }
 
     @Override
@@ -26,6 +45,10 @@ public class RequestLoggingFilter implements Filter {
         boolean shouldLog = methodToLog == null || 
                            methodToLog.equalsIgnoreCase(requestSpec.getMethod());
         
+        if (sampling != null) {
+            return filterSampled(requestSpec, responseSpec, ctx, shouldLog);
+        }
+        
         // Log request details before sending if configured to do so and method matches
         if (shouldLog && logDetail != null && !logOnFailureOnly) {
             logRequest(requestSpec, logDetail);
@@ -42,36 +65,51 @@ public class RequestLoggingFilter implements Filter {
         return response;
     }
 
+    private Response filterSampled(FilterableRequestSpecification requestSpec,
+                                   FilterableResponseSpecification responseSpec,
+                                   FilterContext ctx, boolean shouldLog) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsed = System.nanoTime() - start;
+
+        boolean failed = response.statusCode() < 200 || response.statusCode() >= 300;
+        LogDetail detail = logOnFailureOnly ? (failed ? LogDetail.ALL : null) : logDetail;
+        if (shouldLog && detail != null && sampling.shouldLog(requestSpec, ctx, response.statusCode(), elapsed)) {
+            logRequest(requestSpec, detail);
+        }
+        return response;
+    }
+
     private void logRequest(FilterableRequestSpecification requestSpec, LogDetail detail) {
         try {
             switch (detail) {
                 case ALL:
-                    System.out.println("REQUEST: " + requestSpec.getMethod() + " " + requestSpec.getURI());
-                    System.out.println("Headers: " + requestSpec.getHeaders());
+                    log.info("REQUEST: %s %s", requestSpec.getMethod(), requestSpec.getURI());
+                    log.info("Headers: %s", requestSpec.getHeaders());
                     if (requestSpec.getBody() != null) {
-                        System.out.println("Body: " + requestSpec.getBody().toString());
+                        log.info("Body: %s", requestSpec.getBody().toString());
                     }
                     break;
                 case HEADERS:
-                    System.out.println("REQUEST HEADERS: " + requestSpec.getHeaders());
+                    log.info("REQUEST HEADERS: %s", requestSpec.getHeaders());
                     break;
                 case BODY:
                     if (requestSpec.getBody() != null) {
-                        System.out.println("REQUEST BODY: " + requestSpec.getBody().toString());
+                        log.info("REQUEST BODY: %s", requestSpec.getBody().toString());
                     }
                     break;
                 case COOKIES:
-                    System.out.println("REQUEST COOKIES: " + requestSpec.getCookies());
+                    log.info("REQUEST COOKIES: %s", requestSpec.getCookies());
                     break;
                 case PARAMS:
-                    System.out.println("REQUEST PARAMS: " + requestSpec.getQueryParams());
+                    log.info("REQUEST PARAMS: %s", requestSpec.getQueryParams());
                     break;
                 default:
                     // No logging
                     break;
             }
         } catch (Exception e) {
-            System.err.println("Error while logging request: " + e.getMessage());
+            log.error("Error while logging request: %s", e.getMessage());
         }
     }
 
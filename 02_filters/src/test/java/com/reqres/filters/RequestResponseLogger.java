@@ -37,4 +37,18 @@ public class RequestResponseLogger {
             new ResponseLoggingFilter(LogDetail.BODY)
         );
     }
+
+    public static List<Filter> timingOnly() {
+        return Arrays.asList(
+            new RequestTimingFilter()
+        );
+    }
+
+    public static List<Filter> logAllWithTiming() {
+        return Arrays.asList(
+            new RequestTimingFilter(),
+            new RequestLoggingFilter(LogDetail.ALL),
+            new ResponseLoggingFilter(LogDetail.ALL)
+        );
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.reqres.filters;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.AbstractHttpClient;
+
+import com.reqres.filters.TimingMetrics.Phase;
+import com.reqres.logging.AsyncLogger;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Breaks every request down into connect, time-to-first-byte and download time,
+ * and records them in {@link TimingMetrics}.
+ * <p>
+ * The filter instruments the HTTP client RestAssured created for the request: a request
+ * interceptor fires once a connection is ready and the request is about to be written,
+ * and a response interceptor fires as soon as the response head arrives. The client runs
+ * on the calling thread, so the timestamps are carried in a ThreadLocal. RestAssured reads
+ * bodies lazily, so the filter buffers the body itself and the download phase ends once the
+ * last byte is in. It runs innermost so other filters are not counted in any phase.
+ * Only clients based on AbstractHttpClient (RestAssured's default) can be instrumented;
+ * for any other client only the total time is recorded, and that is logged once.
+ * <p>
+ * JSON binding is measured with {@link #timeDeserialization(Response, Callable)} and
+ * attributed to the endpoint the given response came from.
+ */
+@SuppressWarnings("deprecation")
+public class RequestTimingFilter implements OrderedFilter {
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    private static final ThreadLocal<Timing> currentTiming = new ThreadLocal<>();
+    private static final AtomicBoolean uninstrumentedClientLogged = new AtomicBoolean();
+    // Weak keys: an entry goes away with its response
+    private static final Map<Response, String> responseEndpoints = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final HttpRequestInterceptor requestSent = (request, context) -> {
+        Timing timing = currentTiming.get();
+        if (timing != null && timing.requestSent == 0) {
+            timing.requestSent = System.nanoTime();
+        }
+    };
+
+    private static final HttpResponseInterceptor responseReceived = (response, context) -> {
+        Timing timing = currentTiming.get();
+        if (timing != null && timing.responseReceived == 0) {
+            timing.responseReceived = System.nanoTime();
+        }
+    };
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String endpoint = EndpointKey.of(requestSpec);
+        addInterceptors(requestSpec.getHttpClient());
+
+        Timing timing = new Timing();
+        currentTiming.set(timing);
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            // Buffers the body; later reads are served from memory
+            response.asByteArray();
+            return response;
+        } finally {
+            long end = System.nanoTime();
+            currentTiming.remove();
+            if (response != null) {
+                responseEndpoints.put(response, endpoint);
+            }
+
+            TimingMetrics.record(endpoint, Phase.TOTAL, end - timing.start);
+            if (timing.requestSent > 0) {
+                TimingMetrics.record(endpoint, Phase.CONNECT, timing.requestSent - timing.start);
+                if (timing.responseReceived > 0) {
+                    TimingMetrics.record(endpoint, Phase.TIME_TO_FIRST_BYTE, timing.responseReceived - timing.requestSent);
+                    TimingMetrics.record(endpoint, Phase.DOWNLOAD, end - timing.responseReceived);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the given binding step and records its duration as deserialization time of
+     * the endpoint that produced {@code response}. Nothing is recorded if the response
+     * did not pass through a RequestTimingFilter.
+     */
+    public static <T> T timeDeserialization(Response response, Callable<T> binding) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return binding.call();
+        } finally {
+            String endpoint = responseEndpoints.get(response);
+            if (endpoint != null) {
+                TimingMetrics.record(endpoint, Phase.DESERIALIZATION, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void addInterceptors(HttpClient client) {
+        if (!(client instanceof AbstractHttpClient)) {
+            if (uninstrumentedClientLogged.compareAndSet(false, true)) {
+                log.error("RequestTimingFilter cannot add interceptors to %s, only total request time is recorded",
+                          client == null ? null : client.getClass().getName());
+            }
+            return;
+        }
+        AbstractHttpClient abstractClient = (AbstractHttpClient) client;
+        synchronized (abstractClient) {
+            // A reused client instance may already carry our interceptors
+            for (int i = 0; i < abstractClient.getRequestInterceptorCount(); i++) {
+                if (abstractClient.getRequestInterceptor(i) == requestSent) {
+                    return;
+                }
+            }
+            abstractClient.addRequestInterceptor(requestSent);
+            abstractClient.addResponseInterceptor(responseReceived);
+        }
+    }
+
+    private static class Timing {
+        private final long start = System.nanoTime();
+        private long requestSent;
+        private long responseReceived;
+    }
+}
@@ -1,5 +1,6 @@
 package com.reqres.filters;
 
+import com.reqres.logging.AsyncLogger;
 import io.restassured.filter.Filter;
 import io.restassured.filter.FilterContext;
 import io.restassured.filter.log.LogDetail;
@@ -8,12 +9,37 @@ import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
 
 public class ResponseLoggingFilter implements Filter {
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    public static final int DEFAULT_MAX_BODY_BYTES = 4 * 1024;
+
     private final LogDetail logDetail;
     private final int maxStatusCode;
+    private final int maxBodyBytes;
+    private final boolean prettyPrint;
+    private final LogSamplingPolicy sampling;
 
     public ResponseLoggingFilter(LogDetail logDetail, int maxStatusCode) {
+        this(logDetail, maxStatusCode, DEFAULT_MAX_BODY_BYTES, false);
+    }
+
+    public ResponseLoggingFilter(LogDetail logDetail, int maxStatusCode, int maxBodyBytes, boolean prettyPrint) {
+        this(logDetail, maxStatusCode, maxBodyBytes, prettyPrint, null);
+    }
+
+    private ResponseLoggingFilter(LogDetail logDetail, int maxStatusCode, int maxBodyBytes, boolean prettyPrint,
+                                  LogSamplingPolicy sampling) {
         this.logDetail = logDetail;
         this.maxStatusCode = maxStatusCode;
+        this.maxBodyBytes = maxBodyBytes;
+        this.prettyPrint = prettyPrint;
+        this.sampling = sampling;
+    }
+
+    /**
+     * Returns a copy of this filter that only logs responses selected by the given policy.
+     */
+    public ResponseLoggingFilter withSampling(LogSamplingPolicy policy) {
+        return new ResponseLoggingFilter(logDetail, maxStatusCode, maxBodyBytes, prettyPrint, policy);
     }
 
     @Override
@@ -21,10 +47,14 @@ public class ResponseLoggingFilter implements Filter {
                           FilterableResponseSpecification responseSpec,
                           FilterContext ctx) {
         // Execute the request first
+        long start = System.nanoTime();
         Response response = ctx.next(requestSpec, responseSpec);
+        long elapsed = System.nanoTime() - start;
         
         // Then log response based on configuration
-        boolean shouldLog = maxStatusCode <= 0 || response.statusCode() <= maxStatusCode;
+        boolean shouldLog = (maxStatusCode <= 0 || response.statusCode() <= maxStatusCode) &&
+                            logDetail != null &&
+                            (sampling == null || sampling.shouldLog(requestSpec, ctx, response.statusCode(), elapsed));
         
         if (shouldLog && logDetail != null) {
             logResponse(response, logDetail);
@@ -37,25 +67,25 @@ public class ResponseLoggingFilter implements Filter {
         try {
             switch (detail) {
                 case ALL:
-                    System.out.println("RESPONSE Status: " + response.getStatusCode() + " " + response.getStatusLine());
-                    System.out.println("Headers: " + response.getHeaders());
-                    System.out.println("Body: " + response.asPrettyString());
+                    log.info("RESPONSE Status: %d %s", response.getStatusCode(), response.getStatusLine());
+                    log.info("Headers: %s", response.getHeaders());
+                    log.info("Body: %s", BodyPreview.of(response, maxBodyBytes, prettyPrint));
                     break;
                 case HEADERS:
-                    System.out.println("RESPONSE HEADERS: " + response.getHeaders());
+                    log.info("RESPONSE HEADERS: %s", response.getHeaders());
                     break;
                 case BODY:
-                    System.out.println("RESPONSE BODY: " + response.asPrettyString());
+                    log.info("RESPONSE BODY: %s", BodyPreview.of(response, maxBodyBytes, prettyPrint));
                     break;
                 case STATUS:
-                    System.out.println("RESPONSE STATUS: " + response.getStatusCode() + " " + response.getStatusLine());
+                    log.info("RESPONSE STATUS: %d %s", response.getStatusCode(), response.getStatusLine());
                     break;
                 default:
                     // No logging
                     break;
             }
         } catch (Exception e) {
-            System.err.println("Error while logging response: " + e.getMessage());
+            log.error("Error while logging response: %s", e.getMessage());
         }
     }
 
@@ -79,4 +109,12 @@ public class ResponseLoggingFilter implements Filter {
     public static ResponseLoggingFilter logOnlySuccessResponses() {
         return new ResponseLoggingFilter(LogDetail.ALL, 299);
     }
+
+    public static ResponseLoggingFilter logBodyCapped(int maxBodyBytes) {
+        return new ResponseLoggingFilter(LogDetail.BODY, 0, maxBodyBytes, false);
+    }
+
+    public static ResponseLoggingFilter logAllPretty() {
+        return new ResponseLoggingFilter(LogDetail.ALL, 0, DEFAULT_MAX_BODY_BYTES, true);
+    }
 }
\ No newline at end of file
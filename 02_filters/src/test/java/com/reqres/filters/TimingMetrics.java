@@ -0,0 +1,90 @@
+package com.reqres.filters;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe registry of request timings, keyed by HTTP method and templated
+ * path (e.g. {@code GET /users/{id}}). Each phase keeps a count, a running total
+ * and a maximum so that parallel tests can record without locking.
+ */
+public class TimingMetrics {
+
+    public enum Phase {
+        CONNECT,        // connection lease / connect / TLS, until the request is written
+        TIME_TO_FIRST_BYTE,
+        DOWNLOAD,       // response head received until the body is fully read
+        DESERIALIZATION,
+        TOTAL
+    }
+
+    private static final ConcurrentHashMap<String, EndpointTimings> endpoints = new ConcurrentHashMap<>();
+
+    private TimingMetrics() {
+        // Utility class
+    }
+
+    public static void record(String endpoint, Phase phase, long nanos) {
+        if (nanos >= 0) {
+            endpoints.computeIfAbsent(endpoint, key -> new EndpointTimings()).record(phase, nanos);
+        }
+    }
+
+    public static Map<String, EndpointTimings> snapshot() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public static void reset() {
+        endpoints.clear();
+    }
+
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Request timings (mean/max ms):");
+        snapshot().forEach((endpoint, timings) -> summary.append(System.lineSeparator())
+                .append("  ").append(endpoint).append(" ").append(timings));
+        return summary.toString();
+    }
+
+    public static class EndpointTimings {
+        private final Map<Phase, LongAdder> counts = new ConcurrentHashMap<>();
+        private final Map<Phase, LongAdder> totals = new ConcurrentHashMap<>();
+        private final Map<Phase, LongAccumulator> maxima = new ConcurrentHashMap<>();
+
+        void record(Phase phase, long nanos) {
+            counts.computeIfAbsent(phase, p -> new LongAdder()).increment();
+            totals.computeIfAbsent(phase, p -> new LongAdder()).add(nanos);
+            maxima.computeIfAbsent(phase, p -> new LongAccumulator(Math::max, 0)).accumulate(nanos);
+        }
+
+        public long getCount(Phase phase) {
+            LongAdder count = counts.get(phase);
+            return count == null ? 0 : count.sum();
+        }
+
+        public double getMeanMillis(Phase phase) {
+            long count = getCount(phase);
+            return count == 0 ? 0 : totals.get(phase).sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public double getMaxMillis(Phase phase) {
+            LongAccumulator max = maxima.get(phase);
+            return max == null ? 0 : max.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("count=").append(getCount(Phase.TOTAL));
+            for (Phase phase : Phase.values()) {
+                if (getCount(phase) > 0) {
+                    text.append(String.format(" %s=%.1f/%.1f", phase.name().toLowerCase(),
+                                              getMeanMillis(phase), getMaxMillis(phase)));
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.reqres.filters.LogSamplingPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * LogSamplingPolicy asked by filters on real requests to a local server: 1-in-N sampling
+ * and the token bucket, both per endpoint, failures and slow requests logged regardless,
+ * and one decision per request shared by every filter using the policy.
+ */
+public class LogSamplingPolicyTests {
+    private static final long SLOW_MILLIS = 150;
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", exchange -> respond(exchange, 200, 0));
+        server.createContext("/fail/", exchange -> respond(exchange, 500, 0));
+        server.createContext("/slow/", exchange -> respond(exchange, 200, SLOW_MILLIS));
+        server.start();
+        baseUri = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testOneInNPerEndpoint() {
+        Decisions decisions = new Decisions(LogSamplingPolicy.oneIn(5));
+
+        for (int id = 1; id <= 10; id++) {
+            send(decisions, "/users/{id}", id);
+            send(decisions, "/users");
+        }
+
+        // Interleaved, so each endpoint logs its own 1st and 6th request
+        List<Boolean> expected = new ArrayList<>(Collections.nCopies(20, false));
+        for (int i : new int[] { 0, 1, 10, 11 }) {
+            expected.set(i, true);
+        }
+        Assert.assertEquals(decisions.made, expected);
+    }
+
+    @Test
+    public void testTokenBucketPerEndpoint() {
+        Decisions decisions = new Decisions(LogSamplingPolicy.all().perEndpointPerMinute(3));
+
+        for (int id = 1; id <= 5; id++) {
+            send(decisions, "/users/{id}", id);
+        }
+        for (int i = 0; i < 5; i++) {
+            send(decisions, "/users");
+        }
+
+        Assert.assertEquals(decisions.made, List.of(true, true, true, false, false, true, true, true, false, false));
+    }
+
+    @Test
+    public void testFailuresAlwaysLogged() {
+        Decisions decisions = new Decisions(LogSamplingPolicy.oneIn(1000).perEndpointPerMinute(1));
+        Decisions sampled = new Decisions(LogSamplingPolicy.oneIn(1000).perEndpointPerMinute(1).sampleFailuresToo());
+
+        for (int id = 1; id <= 5; id++) {
+            send(decisions, "/fail/{id}", id);
+            send(sampled, "/fail/{id}", id);
+        }
+
+        Assert.assertEquals(decisions.made, Collections.nCopies(5, true));
+        Assert.assertEquals(sampled.made, List.of(true, false, false, false, false),
+                "With sampleFailuresToo failures are sampled like any other request");
+    }
+
+    @Test
+    public void testSlowRequestsAlwaysLogged() {
+        Decisions decisions = new Decisions(LogSamplingPolicy.oneIn(1000).slowerThan(Duration.ofMillis(SLOW_MILLIS / 2)));
+
+        for (int id = 1; id <= 3; id++) {
+            send(decisions, "/users/{id}", id);
+        }
+        for (int id = 1; id <= 3; id++) {
+            send(decisions, "/slow/{id}", id);
+        }
+
+        Assert.assertEquals(decisions.made, List.of(true, false, false, true, true, true));
+    }
+
+    @Test
+    public void testOneDecisionPerRequest() {
+        LogSamplingPolicy policy = LogSamplingPolicy.oneIn(2);
+        Decisions requestFilter = new Decisions(policy);
+        Decisions responseFilter = new Decisions(policy);
+
+        for (int id = 1; id <= 6; id++) {
+            RestAssured.given().baseUri(baseUri).filters(requestFilter, responseFilter).get("/users/{id}", id);
+        }
+
+        // Asked separately, the two filters would split every pair of requests between them
+        Assert.assertEquals(requestFilter.made, List.of(true, false, true, false, true, false));
+        Assert.assertEquals(responseFilter.made, requestFilter.made);
+    }
+
+    private void send(Decisions decisions, String path, Object... pathParams) {
+        RestAssured.given().baseUri(baseUri).filter(decisions).get(path, pathParams);
+    }
+
+    private static void respond(HttpExchange exchange, int status, long delayMillis) throws IOException {
+        try {
+            Thread.sleep(delayMillis);
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Asks the policy once the response is in, as the logging filters do, and keeps the answers.
+     */
+    private static class Decisions implements Filter {
+        private final LogSamplingPolicy policy;
+        private final List<Boolean> made = new ArrayList<>();
+
+        Decisions(LogSamplingPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            long start = System.nanoTime();
+            Response response = ctx.next(requestSpec, responseSpec);
+            made.add(policy.shouldLog(requestSpec, ctx, response.statusCode(), System.nanoTime() - start));
+            return response;
+        }
+    }
+}
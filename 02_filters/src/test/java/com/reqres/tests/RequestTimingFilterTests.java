@@ -0,0 +1,93 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.reqres.filters.RequestTimingFilter;
+import com.reqres.filters.TimingMetrics;
+import com.reqres.filters.TimingMetrics.EndpointTimings;
+import com.reqres.filters.TimingMetrics.Phase;
+import com.reqres.utils.JsonUtils;
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+
+/**
+ * Runs RequestTimingFilter against a local server that waits before sending the
+ * response head and again halfway through the body, and checks that every phase is
+ * recorded under the endpoint's templated path, with the waits in the right phases.
+ */
+public class RequestTimingFilterTests {
+    private static final String ENDPOINT = "GET /users/{id}";
+    private static final long HEAD_DELAY_MILLIS = 150;
+    private static final long BODY_DELAY_MILLIS = 150;
+
+    private HttpServer server;
+    private String baseUri;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users/", exchange -> {
+            try {
+                Thread.sleep(HEAD_DELAY_MILLIS);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                // Chunked, so the head goes out before the body is complete
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write("{\"data\":{\"id\":2,".getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                    Thread.sleep(BODY_DELAY_MILLIS);
+                    body.write("\"first_name\":\"Janet\"}}".getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUri = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testEveryPhaseRecordedUnderTemplatedPath() throws Exception {
+        EndpointTimings before = TimingMetrics.snapshot().get(ENDPOINT);
+        Response response = RestAssured.given()
+                .baseUri(baseUri)
+                .filter(new RequestTimingFilter())
+                .when()
+                .get("/users/{id}", 2);
+        Map<?, ?> user = RequestTimingFilter.timeDeserialization(response,
+                () -> JsonUtils.getObjectMapper().readValue(response.asString(), Map.class));
+
+        Assert.assertEquals(response.getStatusCode(), 200);
+        Assert.assertEquals(((Map<?, ?>) user.get("data")).get("first_name"), "Janet");
+        EndpointTimings timings = TimingMetrics.snapshot().get(ENDPOINT);
+        Assert.assertNotNull(timings, "Timings should be keyed by the templated path: " + TimingMetrics.snapshot().keySet());
+        for (Phase phase : Phase.values()) {
+            long previous = before == null ? 0 : before.getCount(phase);
+            Assert.assertEquals(timings.getCount(phase), previous + 1, phase + " should be recorded once");
+        }
+        Assert.assertTrue(timings.getMaxMillis(Phase.TIME_TO_FIRST_BYTE) >= HEAD_DELAY_MILLIS,
+                "The wait for the response head belongs to time to first byte: " + timings);
+        Assert.assertTrue(timings.getMaxMillis(Phase.DOWNLOAD) >= BODY_DELAY_MILLIS,
+                "The wait within the body belongs to download: " + timings);
+        Assert.assertTrue(timings.getMaxMillis(Phase.TOTAL) >= HEAD_DELAY_MILLIS + BODY_DELAY_MILLIS, timings.toString());
+    }
+}
@@ -1,22 +1,125 @@
 package com.reqres.config;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.Properties;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.time.Duration;
 
+/**
+ * Central configuration, loaded once and cached.
+ * <p>
+ * Values are read from the file named by -Dconfig.file, otherwise from the module's
+ * src/main/resources/config.properties when running from the source tree, so an edit
+ * to it applies without a rebuild, otherwise from the config.properties that ships
+ * with this class (target/classes, so a same-named test resource cannot shadow it),
+ * otherwise from config.properties on the classpath. For every key, a system property
+ * with the same name wins over an environment variable (dots replaced by underscores,
+ * upper case, e.g. HTTP_POOL_MAXTOTAL), which wins over the file; see ConfigSource.
+ * <p>
+ * When loaded from a file, the file is watched and changes are applied without
+ * restarting the JVM. Read values through this class when they are used rather than
+ * once into a field, or register a reload listener, so a reload reaches them.
+ * Set -Dconfig.watch=false to disable watching.
+ */
 public class Config {
-    private static final Properties properties = new Properties();
-    private static final String CONFIG_FILE = "src/main/resources/config.properties";
+    private static final String CLASSPATH_RESOURCE = "config.properties";
+
+    private static final ConfigSource source = new ConfigSource(resolveConfigPath(), CLASSPATH_RESOURCE);
 
     static {
-        try {
-            properties.load(new FileInputStream(CONFIG_FILE));
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load config file: " + CONFIG_FILE, e);
+        if (Boolean.parseBoolean(System.getProperty("config.watch", "true"))) {
+            source.watch();
         }
     }
 
     public static String getBaseURI() {
-        return properties.getProperty("baseURI").trim();
+        return source.getRequiredString("baseURI");
+    }
+
+    public static String getString(String key, String defaultValue) {
+        return source.getString(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return source.getInt(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return source.getLong(key, defaultValue);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return source.getDouble(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return source.getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Reads a duration in ISO-8601 form (PT30S) or as a plain number of seconds.
+     */
+    public static Duration getDuration(String key, Duration defaultValue) {
+        return source.getDuration(key, defaultValue);
+    }
+
+    public static URI getURI(String key) {
+        return source.getURI(key);
+    }
+
+    /**
+     * @return the source behind these getters, for components that take a ConfigSource
+     */
+    public static ConfigSource getSource() {
+        return source;
+    }
+
+    /**
+     * Registers a callback that runs after the configuration file has been reloaded,
+     * for components that hold values derived from it.
+     */
+    public static void addReloadListener(Runnable listener) {
+        source.addReloadListener(listener);
+    }
+
+    /**
+     * Re-reads the configuration and atomically replaces the current snapshot.
+     *
+     * @throws IllegalStateException if the new configuration lacks a required key;
+     *         the current snapshot is kept
+     */
+    public static void reload() {
+        source.reload();
+    }
+
+    private static Path resolveConfigPath() {
+        String explicit = System.getProperty("config.file");
+        if (explicit != null) {
+            return Paths.get(explicit).toAbsolutePath();
+        }
+        CodeSource codeSource = Config.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            return null;
+        }
+        try {
+            Path classes = Paths.get(codeSource.getLocation().toURI());
+            // target/classes -> the module's source copy, the one people edit during a run
+            Path moduleDir = Files.isDirectory(classes) && classes.getParent() != null
+                    ? classes.getParent().getParent() : null;
+            if (moduleDir != null) {
+                Path sourceFile = moduleDir.resolve(Paths.get("src", "main", "resources", CLASSPATH_RESOURCE));
+                if (Files.isRegularFile(sourceFile)) {
+                    return sourceFile;
+                }
+            }
+            Path bundled = classes.resolve(CLASSPATH_RESOURCE);
+            // Not a plain file when Config is loaded from a jar: read from the classpath, nothing to watch
+            return Files.isRegularFile(bundled) ? bundled : null;
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,265 @@
+package com.reqres.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * One configuration file, layered under system properties and environment variables,
+ * with typed values cached per snapshot; {@link Config} serves the suite's from it.
+ * <p>
+ * For every key, a system property with the same name wins over an environment
+ * variable (dots replaced by underscores, upper case, e.g. HTTP_POOL_MAXTOTAL), which
+ * wins over the file. Parsed values are cached per key and type until the next reload.
+ * <p>
+ * A file can be watched, so changes are applied without restarting the JVM. A reload
+ * waits until the file has stopped changing, then builds a new snapshot and swaps it in
+ * atomically, so a reader never sees a half-loaded configuration. A snapshot that lacks
+ * a required key, for example because the file was caught mid-write, is rejected and
+ * the previous one stays.
+ */
+public class ConfigSource implements AutoCloseable {
+    private static final List<String> REQUIRED_KEYS = Arrays.asList("baseURI");
+    // How long the file must stay unchanged before a reload
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path path;
+    private final String classpathResource;
+    private final AtomicReference<Snapshot> current;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile Thread watcher;
+
+    /**
+     * Reads the given file, or the classpath resource when the file is null.
+     */
+    ConfigSource(Path path, String classpathResource) {
+        this.path = path;
+        this.classpathResource = classpathResource;
+        this.current = new AtomicReference<>(load());
+    }
+
+    /**
+     * Reads the given file; call {@link #watch()} to apply changes to it as they happen.
+     */
+    public ConfigSource(Path path) {
+        this(path, null);
+    }
+
+    /**
+     * @return the file this configuration is read from, or null when it comes from the classpath
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = current.get().typed(key, String.class, raw -> raw);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @throws IllegalStateException if the key has no value
+     */
+    public String getRequiredString(String key) {
+        return current.get().typed(key, String.class, raw -> require(key, raw));
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = current.get().typed(key, Integer.class, raw -> raw == null ? null : Integer.valueOf(raw));
+        return value == null ? defaultValue : value;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long value = current.get().typed(key, Long.class, raw -> raw == null ? null : Long.valueOf(raw));
+        return value == null ? defaultValue : value;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Double value = current.get().typed(key, Double.class, raw -> raw == null ? null : Double.valueOf(raw));
+        return value == null ? defaultValue : value;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = current.get().typed(key, Boolean.class, raw -> raw == null ? null : Boolean.valueOf(raw));
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Reads a duration in ISO-8601 form (PT30S) or as a plain number of seconds.
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        Duration value = current.get().typed(key, Duration.class, raw -> raw == null ? null
+                : raw.toUpperCase().startsWith("P") ? Duration.parse(raw) : Duration.ofSeconds(Long.parseLong(raw)));
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @throws IllegalStateException if the key has no value
+     */
+    public URI getURI(String key) {
+        return current.get().typed(key, URI.class, raw -> URI.create(require(key, raw)));
+    }
+
+    /**
+     * Registers a callback that runs after the configuration has been reloaded,
+     * for components that hold values derived from it.
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Re-reads the configuration and atomically replaces the current snapshot.
+     *
+     * @throws IllegalStateException if the new configuration lacks a required key;
+     *         the current snapshot is kept
+     */
+    public void reload() {
+        current.set(load());
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Starts watching the file in a daemon thread and reloads whenever it changes.
+     * Does nothing when there is no file or it is watched already.
+     */
+    public synchronized void watch() {
+        if (path == null || watcher != null) {
+            return;
+        }
+        watcher = new Thread(this::watchFile, "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private static String require(String key, String raw) {
+        if (raw == null) {
+            throw new IllegalStateException("Missing required config property: " + key);
+        }
+        return raw;
+    }
+
+    private Snapshot load() {
+        Properties properties = new Properties();
+        try (InputStream in = path != null
+                ? Files.newInputStream(path)
+                : ConfigSource.class.getClassLoader().getResourceAsStream(classpathResource)) {
+            if (in == null) {
+                throw new IllegalStateException("Config file not found on classpath: " + classpathResource);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load config file: " + (path != null ? path : classpathResource), e);
+        }
+        Snapshot snapshot = new Snapshot(properties);
+        for (String key : REQUIRED_KEYS) {
+            require(key, snapshot.raw(key));
+        }
+        return snapshot;
+    }
+
+    private void watchFile() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            path.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                // An editor or a copy can write the file in several steps; wait until it settles
+                while (key != null) {
+                    changed |= isConfigFileEvent(key);
+                    if (!key.reset()) {
+                        return;
+                    }
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (changed) {
+                    try {
+                        reload();
+                        System.out.println("Reloaded config from " + path);
+                    } catch (RuntimeException e) {
+                        // Keep serving the previous snapshot if the new file is unreadable or invalid
+                        System.err.println("Ignoring config change, reload failed: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            System.err.println("Config watcher stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isConfigFileEvent(WatchKey key) {
+        boolean matched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (path.getFileName().equals(event.context())) {
+                matched = true;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Immutable view of one load of the configuration, with typed values cached per key.
+     */
+    private static class Snapshot {
+        private static final Object MISSING = new Object();
+
+        private final Properties properties;
+        // Keyed by target type and property name
+        private final Map<String, Object> typedCache = new ConcurrentHashMap<>();
+
+        Snapshot(Properties properties) {
+            this.properties = properties;
+        }
+
+        <T> T typed(String key, Class<T> type, Function<String, T> parser) {
+            Object value = typedCache.computeIfAbsent(type.getName() + ":" + key, k -> {
+                T parsed = parser.apply(raw(key));
+                return parsed == null ? MISSING : parsed;
+            });
+            return value == MISSING ? null : type.cast(value);
+        }
+
+        private String raw(String key) {
+            String value = System.getProperty(key);
+            if (value == null) {
+                value = System.getenv(key.replace('.', '_').toUpperCase());
+            }
+            if (value == null) {
+                value = properties.getProperty(key);
+            }
+            return value == null ? null : value.trim();
+        }
+    }
+}
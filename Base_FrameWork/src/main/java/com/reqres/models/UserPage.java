@@ -0,0 +1,29 @@
+package com.reqres.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+
+@Data
+public class UserPage {
+
+    @JsonProperty("page")
+    private int page;
+
+    @JsonProperty("per_page")
+    private int perPage;
+
+    @JsonProperty("total")
+    private int total;
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+
+    @JsonProperty("data")
+    private List<UserData> data;
+
+    @JsonProperty("support")
+    private Support support;
+}
@@ -0,0 +1,109 @@
+package com.reqres.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reqres.http.HttpConnectionPool;
+import com.reqres.http.RequestSpecTemplates;
+import com.reqres.models.User;
+import com.reqres.services.ApiService;
+import com.reqres.stub.StubServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * End-to-end ApiService calls against an in-process stub server, with three filter
+ * chains so that their overhead shows up as the difference between them:
+ * <ul>
+ *   <li>none: base URI, content type and connection pool only</li>
+ *   <li>template: the suite template (ConnectionGateFilter, LatencyFilter, RequestContextFilter), without retries</li>
+ *   <li>logging: the template plus full request/response logging to a discarded stream</li>
+ * </ul>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ApiServiceBenchmark {
+    private static final PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+    @Param({"none", "template", "logging"})
+    public String filterChain;
+
+    private StubServer server;
+    private RequestSpecification spec;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = new StubServer(new StubServer.Settings());
+        switch (filterChain) {
+            case "none":
+                spec = new RequestSpecBuilder()
+                        .setBaseUri(server.getBaseUri())
+                        .setContentType(ContentType.JSON)
+                        .setConfig(RestAssured.config().httpClient(HttpConnectionPool.getInstance().getHttpClientConfig()))
+                        .build();
+                break;
+            case "template":
+                spec = RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile())
+                        .setBaseUri(server.getBaseUri())
+                        .build();
+                break;
+            case "logging":
+                spec = RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile())
+                        .setBaseUri(server.getBaseUri())
+                        .addFilter(new RequestLoggingFilter(LogDetail.ALL, discard))
+                        .addFilter(new ResponseLoggingFilter(LogDetail.ALL, discard))
+                        .build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter chain: " + filterChain);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Benchmark
+    public Response getUserById() {
+        return ApiService.getInstance().getUserById(2, spec);
+    }
+
+    @Benchmark
+    public Response getUsersByPage() {
+        return ApiService.getInstance().getUsersByPage(1, spec);
+    }
+
+    @Benchmark
+    public User getUserObjectById() throws IOException {
+        return ApiService.getInstance().getUserObjectById(2, spec);
+    }
+}
@@ -0,0 +1,42 @@
+package com.reqres.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON to
+ * target/jmh/results-&lt;timestamp&gt;.json, so that two builds can be compared
+ * (e.g. with jmh.morethan.io or any JSON diff).
+ * <p>
+ * Started by {@code mvn test -Pbench}; -Dbench.include=&lt;regex&gt; selects benchmarks.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("bench.include", BenchmarkRunner.class.getPackageName());
+        Path resultDir = Paths.get(System.getProperty("bench.resultDir", "target/jmh"));
+        Files.createDirectories(resultDir);
+        Path resultFile = resultDir.resolve("results-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                // No config file watcher thread while measuring
+                .jvmArgsAppend("-Dconfig.watch=false")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Benchmark results written to " + resultFile);
+    }
+}
@@ -0,0 +1,66 @@
+package com.reqres.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reqres.models.User;
+import com.reqres.models.UserPage;
+import com.reqres.stub.StubPayloads;
+import com.reqres.utils.JsonUtils;
+
+/**
+ * Cost of binding reqres payloads through JsonUtils, compared with the
+ * String-based ObjectMapper call the tests used to make.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBindingBenchmark {
+    private byte[] userJson;
+    private String userJsonString;
+    private byte[] pageJson;
+    private User user;
+
+    @Setup
+    public void setup() {
+        userJson = StubPayloads.userJson(2);
+        userJsonString = new String(userJson, StandardCharsets.UTF_8);
+        pageJson = StubPayloads.pageJson(1);
+        user = StubPayloads.user(2);
+    }
+
+    @Benchmark
+    public User readUserFromBytes() throws IOException {
+        return JsonUtils.read(userJson, User.class);
+    }
+
+    @Benchmark
+    public User readUserFromStringWithMapper() throws IOException {
+        return JsonUtils.getObjectMapper().readValue(userJsonString, User.class);
+    }
+
+    @Benchmark
+    public UserPage readUserPageFromBytes() throws IOException {
+        return JsonUtils.read(pageJson, UserPage.class);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return JsonUtils.toJsonBytes(user);
+    }
+}
@@ -0,0 +1,64 @@
+package com.reqres.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reqres.config.Config;
+import com.reqres.filters.LatencyFilter;
+import com.reqres.http.HttpConnectionPool;
+import com.reqres.http.RequestSpecTemplates;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Cost of getting a RequestSpecification in BaseTest.setup(): building one per
+ * test or deriving a per-test copy of the shared template (what
+ * BaseTest.deriveRequestSpec does), against handing out the template itself (what
+ * BaseTest.setup does).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecConstructionBenchmark {
+
+    @Benchmark
+    public RequestSpecification buildPerTest() {
+        return new RequestSpecBuilder()
+                .setBaseUri(Config.getBaseURI())
+                .setContentType(ContentType.JSON)
+                .setConfig(RestAssured.config().httpClient(HttpConnectionPool.getInstance().getHttpClientConfig()))
+                .addFilter(new LatencyFilter())
+                .build();
+    }
+
+    @Benchmark
+    public RequestSpecification sharedTemplate() {
+        return RequestSpecTemplates.get(RequestSpecTemplates.activeProfile());
+    }
+
+    @Benchmark
+    public RequestSpecification derivedCopy() {
+        return RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile()).build();
+    }
+
+    @Benchmark
+    public RequestSpecification derivedCopyWithHeader() {
+        return RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile())
+                .addHeader("X-Benchmark", "true")
+                .build();
+    }
+}
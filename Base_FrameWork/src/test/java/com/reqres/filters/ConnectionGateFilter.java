@@ -0,0 +1,77 @@
+package com.reqres.filters;
+
+import java.util.concurrent.Semaphore;
+
+import com.reqres.http.HttpConnectionPool;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Lets a request through only when a pooled connection is free for it, see
+ * {@link HttpConnectionPool#getRequestPermits()}. Runs first in the chain, so the
+ * time spent waiting here is not counted as endpoint latency by LatencyFilter.
+ * <p>
+ * RestAssured reads the body lazily and normally frees the connection by shutting
+ * down the client's connection manager, which the shared pool ignores. The body is
+ * therefore read here, before the permit is released, so the connection always goes
+ * back to the pool even when the caller only looks at the status code.
+ * <p>
+ * A filter further down the chain that has to wait, such as RetryFilter between
+ * attempts, hands the permit back for that time through {@link #awaitWithoutPermit(Runnable)}.
+ */
+public class ConnectionGateFilter implements OrderedFilter {
+    // The permit the request in flight on this thread holds, if any
+    private static final ThreadLocal<Semaphore> heldPermit = new ThreadLocal<>();
+
+    private final Semaphore permits = HttpConnectionPool.getInstance().getRequestPermits();
+
+    /**
+     * Runs a wait with this thread's permit released, so other requests can use the
+     * connection meanwhile, and takes a permit again before returning. Outside the
+     * gate the wait is simply run.
+     */
+    public static void awaitWithoutPermit(Runnable wait) {
+        Semaphore held = heldPermit.get();
+        if (held == null) {
+            wait.run();
+            return;
+        }
+        held.release();
+        try {
+            wait.run();
+        } finally {
+            // The gate's finally releases a permit, so one must be held again whatever happens
+            held.acquireUninterruptibly();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an HTTP connection", e);
+        }
+        heldPermit.set(permits);
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            // Buffered by RestAssured, so the caller can still read the body
+            response.asByteArray();
+            return response;
+        } finally {
+            heldPermit.remove();
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.reqres.filters;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+/**
+ * Names endpoints by HTTP method and the path as written in the test, before path
+ * parameters are filled in and without the query string (e.g. {@code GET /users/{id}}).
+ */
+final class EndpointKey {
+
+    private EndpointKey() {
+        // Utility class
+    }
+
+    static String pathTemplate(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        int queryStart = path.indexOf('?');
+        return queryStart < 0 ? path : path.substring(0, queryStart);
+    }
+
+    static String of(FilterableRequestSpecification requestSpec) {
+        return requestSpec.getMethod() + " " + pathTemplate(requestSpec);
+    }
+}
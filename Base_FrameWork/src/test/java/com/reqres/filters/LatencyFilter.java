@@ -0,0 +1,32 @@
+package com.reqres.filters;
+
+import com.reqres.listeners.LatencyRegistry;
+import com.reqres.listeners.RequestContext;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the round-trip time of every request in the LatencyRegistry,
+ * keyed by HTTP method and templated path (e.g. {@code GET /users/{id}}), in the
+ * scope of the test that sends it (see RequestContext).
+ */
+public class LatencyFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        RequestContext context = RequestContext.current();
+        String scope = context == null ? LatencyRegistry.NO_SCOPE : context.getLatencyScope();
+        String pathTemplate = EndpointKey.pathTemplate(requestSpec);
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            LatencyRegistry.recordEndpoint(scope, requestSpec.getMethod(), pathTemplate, System.nanoTime() - start);
+        }
+    }
+}
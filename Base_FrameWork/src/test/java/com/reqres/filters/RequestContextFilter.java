@@ -0,0 +1,36 @@
+package com.reqres.filters;
+
+import com.reqres.listeners.RequestContext;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the endpoint and status of every response in the RequestContext of the test
+ * invocation that sends it, see {@link RequestContext#current()}. One instance is shared
+ * through the spec templates, so requests count for their test whichever thread sends
+ * them, including ApiService's virtual threads; requests outside a test are not recorded.
+ * Runs outside RetryFilter, so only the final attempt of a retried request is recorded.
+ */
+public class RequestContextFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        Integer statusCode = null;
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            statusCode = response.getStatusCode();
+            return response;
+        } finally {
+            context.record(EndpointKey.of(requestSpec), statusCode);
+        }
+    }
+}
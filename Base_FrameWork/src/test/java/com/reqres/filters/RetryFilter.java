@@ -0,0 +1,251 @@
+package com.reqres.filters;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.reqres.config.Config;
+import com.reqres.listeners.FailureClassifier;
+import com.reqres.listeners.RequestContext;
+import com.reqres.listeners.RetryEngine;
+import com.reqres.logging.AsyncLogger;
+import io.restassured.RestAssured;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.EncoderConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Cookies;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.MultiPartSpecification;
+import io.restassured.specification.ProxySpecification;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Retries a single failed request instead of the whole test method.
+ * <p>
+ * Only idempotent requests (GET, HEAD, PUT, DELETE) are retried, and only when
+ * the failure is a transient network error according to FailureClassifier
+ * (connect errors, timeouts, ...) or the server answered 500, 502, 503 or 504.
+ * Every retry has to be granted by the RetryEngine, so retries count against the
+ * suite retry budget and stop while the endpoint's circuit is open. Attempts are
+ * spaced with the RetryEngine's jittered exponential backoff, or by the server's
+ * {@code Retry-After} header when it asks for longer, and the request's connection
+ * permit is handed back to ConnectionGateFilter while waiting.
+ * A Retry-After beyond retry.request.maxRetryAfterSeconds is not waited for: the
+ * response is returned as is.
+ * <p>
+ * The filter runs last in the chain, and RestAssured walks the chain only once per
+ * request, so a retry is sent as a new request to the same, already encoded URI with
+ * the same headers, cookies, body, form and multipart parameters, authentication,
+ * proxy and config, and no filters: the filters around this one still see a single
+ * request and its final response. The body of a response that is retried is drained,
+ * so its pooled connection is released. The attempt number of the request in flight
+ * is available from {@link RequestContext#currentAttempt()}.
+ */
+public class RetryFilter implements OrderedFilter {
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE");
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(500, 502, 503, 504);
+
+    private final RetryEngine retryEngine;
+
+    public RetryFilter() {
+        this(RetryEngine.getInstance());
+    }
+
+    public RetryFilter(RetryEngine retryEngine) {
+        this.retryEngine = retryEngine;
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!IDEMPOTENT_METHODS.contains(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String endpoint = EndpointKey.of(requestSpec);
+        Replay replay = new Replay(requestSpec);
+        // Read per request, so a config reload applies to the next one
+        int maxRetries = Config.getInt("retry.request.maxRetries", 2);
+        long maxRetryAfterMillis = Duration.ofSeconds(Config.getLong("retry.request.maxRetryAfterSeconds", 10)).toMillis();
+        retryEngine.recordExecution();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                RequestContext.setCurrentAttempt(attempt);
+                Response response;
+                try {
+                    response = attempt == 1 ? ctx.next(requestSpec, responseSpec) : replay.send();
+                } catch (RuntimeException e) {
+                    if (!FailureClassifier.classify(e, null).isRetryable()) {
+                        throw e;
+                    }
+                    RetryEngine.Decision decision = retryEngine.onFailure(endpoint, attempt - 1, maxRetries);
+                    if (!decision.shouldRetry()) {
+                        log.info("Not retrying %s %s: %s", requestSpec.getMethod(), requestSpec.getURI(),
+                                 decision.getReason());
+                        throw e;
+                    }
+                    log.info("Retrying %s %s after %s (attempt %d of %d) in %d ms", requestSpec.getMethod(),
+                             requestSpec.getURI(), rootCause(e).getClass().getSimpleName(), attempt + 1,
+                             maxRetries + 1, decision.getDelayMillis());
+                    backoff(decision.getDelayMillis());
+                    continue;
+                }
+
+                if (!RETRYABLE_STATUS_CODES.contains(response.getStatusCode())) {
+                    retryEngine.recordSuccess(endpoint);
+                    return response;
+                }
+                long retryAfter = retryAfterMillis(response.getHeader("Retry-After"));
+                if (retryAfter > maxRetryAfterMillis) {
+                    return response;
+                }
+                RetryEngine.Decision decision = retryEngine.onFailure(endpoint, attempt - 1, maxRetries);
+                if (!decision.shouldRetry()) {
+                    log.info("Not retrying %s %s after HTTP %d: %s", requestSpec.getMethod(), requestSpec.getURI(),
+                             response.getStatusCode(), decision.getReason());
+                    return response;
+                }
+                long delay = Math.max(decision.getDelayMillis(), retryAfter);
+                discard(response);
+                log.info("Retrying %s %s after HTTP %d (attempt %d of %d) in %d ms", requestSpec.getMethod(),
+                         requestSpec.getURI(), response.getStatusCode(), attempt + 1, maxRetries + 1, delay);
+                backoff(delay);
+            }
+        } finally {
+            RequestContext.clearCurrentAttempt();
+        }
+    }
+
+    private void backoff(long delayMillis) {
+        ConnectionGateFilter.awaitWithoutPermit(() -> retryEngine.backoff(delayMillis));
+    }
+
+    private static void discard(Response response) {
+        try {
+            response.asByteArray();
+        } catch (RuntimeException ignored) {
+            // The connection is dropped instead of reused
+        }
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root;
+    }
+
+    /**
+     * Parses a Retry-After header given either in seconds or as an HTTP date.
+     *
+     * @return the delay asked for by the server in milliseconds, or 0 if absent or unparseable
+     */
+    static long retryAfterMillis(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, Duration.ofSeconds(Long.parseLong(value)).toMillis());
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * What it takes to send the request again, captured before the first attempt:
+     * sending it serializes the body into the spec and adds the multipart boundary to
+     * its content type, so those can no longer be read from the spec afterwards.
+     */
+    private static final class Replay {
+        private final FilterableRequestSpecification requestSpec;
+        private final Headers headers;
+        private final Cookies cookies;
+        private final Object body;
+        private final Map<String, String> formParams;
+        private final List<MultiPartSpecification> multiParts;
+        private final AuthenticationScheme authenticationScheme;
+        private final ProxySpecification proxy;
+        private final String contentType;
+
+        Replay(FilterableRequestSpecification requestSpec) {
+            this.requestSpec = requestSpec;
+            this.headers = requestSpec.getHeaders();
+            this.cookies = requestSpec.getCookies();
+            this.body = requestSpec.getBody();
+            this.formParams = new LinkedHashMap<>(requestSpec.getFormParams());
+            this.multiParts = new ArrayList<>(requestSpec.getMultiPartParams());
+            this.authenticationScheme = requestSpec.getAuthenticationScheme();
+            this.proxy = requestSpec.getProxySpecification();
+            this.contentType = requestSpec.getContentType();
+        }
+
+        Response send() {
+            // RequestSpecification has no setter for an arbitrary authentication scheme, the builder does
+            RequestSpecBuilder authAndProxy = new RequestSpecBuilder().setAuth(authenticationScheme);
+            if (proxy != null) {
+                authAndProxy.setProxy(proxy);
+            }
+            RequestSpecification resend = RestAssured.given()
+                    .spec(authAndProxy.build())
+                    .noFilters()
+                    .config(requestSpec.getConfig())
+                    // getURI() is the complete URI of the first attempt, query included, already encoded
+                    .urlEncodingEnabled(false)
+                    .headers(headers)
+                    .cookies(cookies);
+            multiParts.forEach(resend::multiPart);
+            if (!formParams.isEmpty()) {
+                // Encoding is off for the whole request, so the form is encoded here as RestAssured did the first time
+                Charset charset = formCharset();
+                formParams.forEach((name, value) ->
+                        resend.formParam(URLEncoder.encode(name, charset), URLEncoder.encode(value, charset)));
+            }
+            if (body != null) {
+                resend.body(body);
+            }
+            return resend.request(requestSpec.getMethod(), URI.create(requestSpec.getURI()));
+        }
+
+        private Charset formCharset() {
+            if (contentType != null) {
+                for (String parameter : contentType.split(";")) {
+                    String[] pair = parameter.trim().split("=", 2);
+                    if (pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+                        return Charset.forName(pair[1].trim().replace("\"", ""));
+                    }
+                }
+            }
+            EncoderConfig encoderConfig = requestSpec.getConfig().getEncoderConfig();
+            return Charset.forName(contentType != null && encoderConfig.hasDefaultCharsetForContentType(contentType)
+                    ? encoderConfig.defaultCharsetForContentType(contentType)
+                    : encoderConfig.defaultContentCharset());
+        }
+    }
+}
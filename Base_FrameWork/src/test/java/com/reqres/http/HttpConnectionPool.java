@@ -0,0 +1,202 @@
+package com.reqres.http;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+
+import com.reqres.config.Config;
+import io.restassured.config.HttpClientConfig;
+
+/**
+ * Bounded, keep-alive connection pool shared by every thread's requests.
+ * <p>
+ * RestAssured creates an HTTP client per request and shuts its connection
+ * manager down afterwards. This class hands out lightweight clients that all
+ * lease connections from one pooling manager whose shutdown is a no-op, so
+ * TCP/TLS connections survive across requests and across the ThreadLocal
+ * ApiService instances. Idle and expired connections are evicted by a
+ * background daemon thread.
+ * <p>
+ * HttpClient 4 waits for a free connection while holding a monitor, which pins
+ * a virtual thread to its carrier. Once every carrier is pinned that way, the
+ * virtual threads holding the connections cannot resume and all requests stall.
+ * {@link #getRequestPermits()} caps requests in flight at the pool size so that
+ * callers wait there (parking, not pinning) instead; see ConnectionGateFilter.
+ * <p>
+ * Pool sizes (and the permits with them) follow config reloads, and the keep-alive
+ * and idle eviction settings are read each time they are used. Only the connection
+ * time to live, http.pool.keepAliveSeconds as of start, is fixed for the pool's life.
+ */
+public class HttpConnectionPool {
+    private static final HttpConnectionPool instance = new HttpConnectionPool();
+
+    private final SharedConnectionManager connectionManager;
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private final ScheduledExecutorService evictor;
+    private final HttpClientConfig httpClientConfig;
+    private final RequestPermits requestPermits;
+    private final LongAdder clientsCreated = new LongAdder();
+
+    private HttpConnectionPool() {
+        connectionManager = new SharedConnectionManager(TimeUnit.SECONDS.toMillis(keepAliveSeconds()));
+        requestPermits = new RequestPermits(applyPoolSizes());
+        Config.addReloadListener(() -> requestPermits.resize(applyPoolSizes()));
+
+        // Honour the server's Keep-Alive header, but never hold a connection longer than configured
+        keepAliveStrategy = (response, context) -> {
+            long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds());
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleEviction();
+
+        httpClientConfig = HttpClientConfig.httpClientConfig().httpClientFactory(this::createHttpClient);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "http-pool-shutdown"));
+    }
+
+    public static HttpConnectionPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return the HttpClientConfig to plug into a RestAssuredConfig so that requests use this pool
+     */
+    public HttpClientConfig getHttpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * @return one permit per pooled connection a request can lease; hold one while a request is in flight
+     */
+    public Semaphore getRequestPermits() {
+        return requestPermits;
+    }
+
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public long getClientsCreated() {
+        return clientsCreated.sum();
+    }
+
+    public String getStatsSummary() {
+        PoolStats stats = getTotalStats();
+        return "HTTP pool: leased=" + stats.getLeased() +
+               ", available=" + stats.getAvailable() +
+               ", pending=" + stats.getPending() +
+               ", queued=" + requestPermits.getQueueLength() +
+               ", max=" + stats.getMax() +
+               ", clientsCreated=" + getClientsCreated();
+    }
+
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.close();
+    }
+
+    private static int keepAliveSeconds() {
+        return Config.getInt("http.pool.keepAliveSeconds", 30);
+    }
+
+    /**
+     * Sizes the pool from the current configuration.
+     *
+     * @return the number of connections a request can get
+     */
+    private int applyPoolSizes() {
+        int maxTotal = Config.getInt("http.pool.maxTotal", 50);
+        int maxPerRoute = Config.getInt("http.pool.maxPerRoute", 20);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        // Every test talks to a single route, so that is the number of connections a request can get
+        return Math.min(maxTotal, maxPerRoute);
+    }
+
+    /**
+     * Schedules the next eviction run; each run reschedules itself, so a changed interval
+     * applies from the run after.
+     */
+    private void scheduleEviction() {
+        int idleEvictionSeconds = Config.getInt("http.pool.idleEvictionSeconds", 15);
+        try {
+            evictor.schedule(() -> {
+                try {
+                    connectionManager.closeExpiredConnections();
+                    connectionManager.closeIdleConnections(idleEvictionSeconds, TimeUnit.SECONDS);
+                } finally {
+                    scheduleEviction();
+                }
+            }, idleEvictionSeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private DefaultHttpClient createHttpClient() {
+        clientsCreated.increment();
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        client.setKeepAliveStrategy(keepAliveStrategy);
+        return client;
+    }
+
+    /**
+     * Request permits that can be resized while requests hold some of them.
+     */
+    private static final class RequestPermits extends Semaphore {
+        private int size;
+
+        RequestPermits(int size) {
+            super(size, true);
+            this.size = size;
+        }
+
+        synchronized void resize(int newSize) {
+            if (newSize > size) {
+                release(newSize - size);
+            } else if (newSize < size) {
+                // May go negative while requests above the new size are still in flight
+                reducePermits(size - newSize);
+            }
+            size = newSize;
+        }
+    }
+
+    /**
+     * Pooling manager that ignores the per-request shutdown issued by RestAssured;
+     * the pool is only released through {@link #close()}.
+     */
+    @SuppressWarnings("deprecation")
+    private static class SharedConnectionManager extends PoolingClientConnectionManager {
+
+        SharedConnectionManager(long timeToLiveMillis) {
+            super(SchemeRegistryFactory.createDefault(), timeToLiveMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void shutdown() {
+            // Shared across clients, see close()
+        }
+
+        void close() {
+            super.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.reqres.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.reqres.config.Config;
+import com.reqres.filters.ConnectionGateFilter;
+import com.reqres.filters.LatencyFilter;
+import com.reqres.filters.RequestContextFilter;
+import com.reqres.filters.RetryFilter;
+import com.reqres.stub.StubServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Cache of prebuilt RequestSpecification templates, one per environment profile, with
+ * or without request retries.
+ * <p>
+ * A template is built the first time it is requested and then shared by every test in
+ * the suite; it holds no per-test state (RequestContextFilter finds the test through
+ * RequestContext). RequestSpecification is mutable, so a template must only ever be
+ * read: RestAssured merges it into each fresh request through {@code given().spec(...)}
+ * anyway. Copying it per test would cost a second merge, as much as building a spec
+ * from scratch (see SpecConstructionBenchmark), so BaseTest hands the template itself
+ * to every test method, and only a test that needs a variant pays for a copy taken
+ * with {@link #derive(String, boolean)}.
+ * <p>
+ * A profile can override the base URI with a {@code baseURI.<profile>} property.
+ * With {@code stub.enabled=true} every profile points at the in-process StubServer instead.
+ */
+public class RequestSpecTemplates {
+    public static final String DEFAULT_PROFILE = "default";
+
+    // Keyed by profile, with a "+retry" suffix for templates that retry requests
+    private static final ConcurrentHashMap<String, RequestSpecification> templates = new ConcurrentHashMap<>();
+    private static final LatencyFilter latencyFilter = new LatencyFilter();
+    private static final ConnectionGateFilter connectionGateFilter = new ConnectionGateFilter();
+    private static final RequestContextFilter requestContextFilter = new RequestContextFilter();
+    private static final RetryFilter retryFilter = new RetryFilter();
+
+    static {
+        // Rebuild templates from fresh values after config.properties changes
+        Config.addReloadListener(templates::clear);
+    }
+
+    private RequestSpecTemplates() {
+        // Utility class
+    }
+
+    /**
+     * @return the profile selected with -Denv, or "default"
+     */
+    public static String activeProfile() {
+        return System.getProperty("env", DEFAULT_PROFILE);
+    }
+
+    /**
+     * Same as {@link #get(String, boolean)} without request retries.
+     */
+    public static RequestSpecification get(String profile) {
+        return get(profile, false);
+    }
+
+    /**
+     * Returns the shared template itself. Never call a mutator such as {@code header(...)}
+     * on it; that would change the spec of every thread. Use {@link #derive(String, boolean)} instead.
+     *
+     * @param retryRequests whether failed idempotent requests are retried by RetryFilter
+     */
+    public static RequestSpecification get(String profile, boolean retryRequests) {
+        return templates.computeIfAbsent(retryRequests ? profile + "+retry" : profile,
+                key -> build(profile, retryRequests));
+    }
+
+    /**
+     * Same as {@link #derive(String, boolean)} without request retries.
+     */
+    public static RequestSpecBuilder derive(String profile) {
+        return derive(profile, false);
+    }
+
+    /**
+     * Returns a builder pre-loaded with the template, for a test that needs its own
+     * variant (extra headers, filters, ...). The shared template is not modified.
+     */
+    public static RequestSpecBuilder derive(String profile, boolean retryRequests) {
+        return new RequestSpecBuilder().addRequestSpecification(get(profile, retryRequests));
+    }
+
+    private static String baseUri(String profile) {
+        if (StubServer.isEnabled()) {
+            return StubServer.getInstance().getBaseUri();
+        }
+        return Config.getString("baseURI." + profile, Config.getBaseURI());
+    }
+
+    private static RequestSpecification build(String profile, boolean retryRequests) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseUri(profile))
+                .setContentType(ContentType.JSON)
+                .setConfig(RestAssured.config().httpClient(HttpConnectionPool.getInstance().getHttpClientConfig()))
+                .addFilter(connectionGateFilter)
+                .addFilter(latencyFilter)
+                .addFilter(requestContextFilter);
+        return retryRequests ? builder.addFilter(retryFilter).build() : builder.build();
+    }
+}
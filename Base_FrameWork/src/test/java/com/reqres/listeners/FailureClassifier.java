@@ -0,0 +1,182 @@
+package com.reqres.listeners;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLHandshakeException;
+
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.testng.ITestResult;
+
+/**
+ * Sorts test failures into categories, shared by TestListener and NetworkRetryAnalyzer.
+ * <p>
+ * Exceptions are matched on their type: each exception class is resolved once
+ * against the known types (walking up its superclasses) and the answer is cached
+ * per class, so classifying a failure is a few lookups along its cause chain.
+ * The HTTP status is not parsed from messages: it is the status of the last
+ * response of the failed invocation, recorded in its {@link RequestContext}.
+ * <p>
+ * Counts per category are kept for the whole run, see {@link #getCounts()}.
+ */
+public class FailureClassifier {
+    private static final String RESULT_ATTRIBUTE = FailureClassifier.class.getName();
+
+    public enum Category {
+        CONNECTION_TIMEOUT("Connection/Read Timeout", true),
+        CONNECTION_REFUSED("Connection Refused", true),
+        NO_RESPONSE("No Response From Server", true),
+        DNS_FAILURE("DNS Resolution Failure", true),
+        SSL_HANDSHAKE_FAILURE("SSL Handshake Failure", true),
+        SSL_FAILURE("SSL Failure", false),
+        TIMEOUT("General Timeout", true),
+        INTERNAL_SERVER_ERROR("Internal Server Error", true),
+        BAD_GATEWAY("Bad Gateway", true),
+        SERVICE_UNAVAILABLE("Service Unavailable", true),
+        GATEWAY_TIMEOUT("Gateway Timeout", true),
+        SERVER_ERROR("Server Error", false),
+        CLIENT_ERROR("Client Error", false),
+        ASSERTION_FAILURE("Assertion Failure", false),
+        UNKNOWN("Unknown Error", false);
+
+        private final String label;
+        private final boolean retryable;
+
+        Category(String label, boolean retryable) {
+            this.label = label;
+            this.retryable = retryable;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return true for transient network and gateway failures that may pass when retried
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    // Looked up by exact class, in no particular order: categoryByType walks up from the
+    // thrown type, so the nearest listed ancestor wins (SSLHandshakeException over SSLException)
+    private static final Map<Class<?>, Category> KNOWN_TYPES = new IdentityHashMap<>();
+
+    static {
+        KNOWN_TYPES.put(ConnectTimeoutException.class, Category.CONNECTION_TIMEOUT);
+        KNOWN_TYPES.put(SocketTimeoutException.class, Category.CONNECTION_TIMEOUT);
+        KNOWN_TYPES.put(ConnectException.class, Category.CONNECTION_REFUSED);
+        KNOWN_TYPES.put(NoRouteToHostException.class, Category.CONNECTION_REFUSED);
+        KNOWN_TYPES.put(NoHttpResponseException.class, Category.NO_RESPONSE);
+        KNOWN_TYPES.put(UnknownHostException.class, Category.DNS_FAILURE);
+        KNOWN_TYPES.put(SSLHandshakeException.class, Category.SSL_HANDSHAKE_FAILURE);
+        KNOWN_TYPES.put(SSLException.class, Category.SSL_FAILURE);
+        KNOWN_TYPES.put(TimeoutException.class, Category.TIMEOUT);
+        KNOWN_TYPES.put(AssertionError.class, Category.ASSERTION_FAILURE);
+    }
+
+    private static final ClassValue<Category> categoryByType = new ClassValue<>() {
+        @Override
+        protected Category computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                Category category = KNOWN_TYPES.get(c);
+                if (category != null) {
+                    return category;
+                }
+            }
+            return Category.UNKNOWN;
+        }
+    };
+
+    private static final Map<Category, LongAdder> counts = new EnumMap<>(Category.class);
+
+    static {
+        for (Category category : Category.values()) {
+            counts.put(category, new LongAdder());
+        }
+    }
+
+    private FailureClassifier() {
+        // Utility class
+    }
+
+    /**
+     * Classifies the failure of a test result, using the status of the last response the
+     * failed invocation received. The category is stored on the result, so the retry analyzer and the
+     * listener agree on it and it is only computed once per failed execution.
+     */
+    public static Category classify(ITestResult result) {
+        Object cached = result.getAttribute(RESULT_ATTRIBUTE);
+        if (cached instanceof Category) {
+            return (Category) cached;
+        }
+        Category category = classify(result.getThrowable(), RequestContext.of(result).lastStatusCode());
+        result.setAttribute(RESULT_ATTRIBUTE, category);
+        return category;
+    }
+
+    /**
+     * @param throwable  the failure, may be null
+     * @param statusCode status of the last response, or null if none was received
+     */
+    public static Category classify(Throwable throwable, Integer statusCode) {
+        // A network error anywhere in the cause chain is the root of the failure
+        Category fromType = Category.UNKNOWN;
+        for (Throwable t = throwable; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            Category category = categoryByType.get(t.getClass());
+            if (category.isRetryable()) {
+                return category;
+            }
+            if (fromType == Category.UNKNOWN) {
+                fromType = category;
+            }
+        }
+        // Otherwise an error status explains a failed assertion better than the assertion itself
+        Category fromStatus = fromStatus(statusCode);
+        return fromStatus != null ? fromStatus : fromType;
+    }
+
+    /**
+     * Counts a classified failure in the run totals.
+     */
+    public static void record(Category category) {
+        counts.get(category).increment();
+    }
+
+    /**
+     * @return failures recorded so far per category, only categories with at least one failure
+     */
+    public static Map<Category, Long> getCounts() {
+        Map<Category, Long> snapshot = new EnumMap<>(Category.class);
+        counts.forEach((category, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                snapshot.put(category, sum);
+            }
+        });
+        return snapshot;
+    }
+
+    private static Category fromStatus(Integer statusCode) {
+        if (statusCode == null || statusCode < 400) {
+            return null;
+        }
+        switch (statusCode) {
+            case 500: return Category.INTERNAL_SERVER_ERROR;
+            case 502: return Category.BAD_GATEWAY;
+            case 503: return Category.SERVICE_UNAVAILABLE;
+            case 504: return Category.GATEWAY_TIMEOUT;
+            default: return statusCode >= 500 ? Category.SERVER_ERROR : Category.CLIENT_ERROR;
+        }
+    }
+}
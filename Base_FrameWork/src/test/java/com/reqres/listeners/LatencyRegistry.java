@@ -0,0 +1,73 @@
+package com.reqres.listeners;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.testng.ITestContext;
+
+/**
+ * Process-wide latency store shared by LatencyReportListener and LatencyFilter.
+ * <p>
+ * Latencies are kept per scope, one {@code <test>} block of a suite (see
+ * {@link #scopeOf(ITestContext)}), so blocks running in parallel each report their
+ * own. Within a scope, each key (a test method or an endpoint) gets its own
+ * HdrHistogram {@link Recorder}, which any number of threads can write to without
+ * locking. Values are kept in microseconds with 3 significant digits.
+ */
+public class LatencyRegistry {
+    public static final String TEST_PREFIX = "test:";
+    public static final String ENDPOINT_PREFIX = "endpoint:";
+    // Requests sent outside any test, e.g. from benchmarks
+    public static final String NO_SCOPE = "";
+
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, Recorder>> scopes = new ConcurrentHashMap<>();
+
+    private LatencyRegistry() {
+        // Utility class
+    }
+
+    /**
+     * @return the scope of a {@code <test>} block: its suite and test names
+     */
+    public static String scopeOf(ITestContext context) {
+        return context.getSuite().getName() + "/" + context.getName();
+    }
+
+    public static void recordTest(String scope, String testKey, long durationMillis) {
+        record(scope, TEST_PREFIX + testKey, TimeUnit.MILLISECONDS.toMicros(durationMillis));
+    }
+
+    public static void recordEndpoint(String scope, String method, String pathTemplate, long durationNanos) {
+        record(scope, ENDPOINT_PREFIX + method + " " + pathTemplate, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    private static void record(String scope, String key, long micros) {
+        scopes.computeIfAbsent(scope, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new Recorder(3))
+                .recordValue(Math.max(0, micros));
+    }
+
+    /**
+     * Returns the values recorded in the scope since the previous call, merged across
+     * all writer threads, and starts a new interval. Keys with no new samples are left
+     * out; other scopes are not touched.
+     */
+    public static Map<String, Histogram> drainIntervals(String scope) {
+        Map<String, Histogram> intervals = new TreeMap<>();
+        ConcurrentHashMap<String, Recorder> recorders = scopes.get(scope);
+        if (recorders == null) {
+            return intervals;
+        }
+        recorders.forEach((key, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                intervals.put(key, histogram);
+            }
+        });
+        return intervals;
+    }
+}
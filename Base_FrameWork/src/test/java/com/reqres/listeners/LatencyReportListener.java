@@ -0,0 +1,113 @@
+package com.reqres.listeners;
+
+import org.HdrHistogram.Histogram;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import com.reqres.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This class records the duration of every finished test method in the shared
+ * latency histograms and, when the test finishes, reports the percentiles of
+ * those durations together with the endpoint latencies recorded by LatencyFilter.
+ * Each {@code <test>} block reports only what was recorded in its own scope, so
+ * blocks running in parallel do not take each other's samples.
+ * It only observes results; it never changes a test's status.
+ */
+public class LatencyReportListener implements ITestListener {
+    private static final Path LATENCY_REPORT_DIR = Paths.get("target", "latency-reports");
+
+    /**
+     * Called after the test finishes executing.
+     * Prints percentile summaries of the latencies recorded so far for this test and writes them
+     * as CSV and JSON under target/latency-reports, one pair of files per suite and
+     * test, so they can be compared across builds.
+     *
+     * @param context - the test context that has just finished.
+     */
+    @Override
+    public void onFinish(ITestContext context) {
+        Map<String, Histogram> histograms = LatencyRegistry.drainIntervals(LatencyRegistry.scopeOf(context));
+        if (histograms.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.println("Latency percentiles (ms):");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", entry.getKey());
+            row.put("count", histogram.getTotalCount());
+            row.put("min", toMillis(histogram.getMinValue()));
+            row.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+            row.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+            row.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+            row.put("p999", toMillis(histogram.getValueAtPercentile(99.9)));
+            row.put("max", toMillis(histogram.getMaxValue()));
+            row.put("mean", toMillis(histogram.getMean()));
+            rows.add(row);
+            System.out.println("  " + row);
+        }
+
+        String baseName = (context.getSuite().getName() + "-" + context.getName()).replaceAll("[^A-Za-z0-9._-]", "_");
+        try {
+            Files.createDirectories(LATENCY_REPORT_DIR);
+            try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(LATENCY_REPORT_DIR.resolve(baseName + ".csv")))) {
+                csv.println(String.join(",", rows.get(0).keySet()));
+                for (Map<String, Object> row : rows) {
+                    csv.println(row.values().stream()
+                            .map(value -> value instanceof String ? "\"" + value + "\"" : String.valueOf(value))
+                            .collect(Collectors.joining(",")));
+                }
+            }
+            JsonUtils.getPrettyWriter().writeValue(LATENCY_REPORT_DIR.resolve(baseName + ".json").toFile(), rows);
+            System.out.println("Latency report written to " + LATENCY_REPORT_DIR.resolve(baseName) + ".{csv,json}");
+        } catch (IOException e) {
+            System.err.println("Failed to write latency report: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordTestLatency(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordTestLatency(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        recordTestLatency(result);
+    }
+
+    /**
+     * Helper method to record the test duration in the shared latency histograms.
+     * Attempts that are retried end up skipped and are not recorded.
+     *
+     * @param result - the test result containing the start and end timestamps.
+     */
+    private void recordTestLatency(ITestResult result) {
+        String testKey = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+        LatencyRegistry.recordTest(LatencyRegistry.scopeOf(result.getTestContext()), testKey,
+                                   result.getEndMillis() - result.getStartMillis());
+    }
+
+    private double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
@@ -2,67 +2,50 @@ package com.reqres.listeners;
 
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
-import java.net.ConnectException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
-import javax.net.ssl.SSLHandshakeException;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Retries tests whose failure {@link FailureClassifier} deems transient
+ * (network errors, 500/502/503/504 responses). How many times,
+ * how long to wait and whether to retry at all is decided by the shared
+ * {@link RetryEngine} (backoff with jitter, suite retry budget, per-endpoint circuit).
+ */
 public class NetworkRetryAnalyzer implements IRetryAnalyzer {
-    private final ConcurrentHashMap<String, Integer> retryCountMap = new ConcurrentHashMap<>();
-    private static final int MAX_RETRY_COUNT = 3;
+    private static final String UNKNOWN_ENDPOINT = "unknown";
+
+    private final RetryState retryState = RetryState.getInstance();
+    private final RetryEngine retryEngine = RetryEngine.getInstance();
 
     @Override
     public boolean retry(ITestResult result) {
-        String testKey = getTestKey(result);
-        int currentRetryCount = retryCountMap.getOrDefault(testKey, 0);
-        
-        if (currentRetryCount < MAX_RETRY_COUNT) {
-            Throwable throwable = result.getThrowable();
-            if (throwable != null && isNetworkException(throwable)) {
-                retryCountMap.put(testKey, currentRetryCount + 1);
-                System.out.println("Retrying test " + testKey + 
-                                 " due to network exception: " + 
-                                 throwable.getClass().getSimpleName() + 
-                                 " (Attempt " + (currentRetryCount + 1) + 
-                                 " of " + MAX_RETRY_COUNT + ")");
-                return true;
-            }
+        if (result.getThrowable() == null) {
+            return false;
         }
-        return false;
-    }
-
-    private String getTestKey(ITestResult result) {
-        return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
-    }
-
-    private boolean isNetworkException(Throwable throwable) {
-        if (throwable instanceof SocketTimeoutException ||
-            throwable instanceof ConnectException ||
-            throwable instanceof UnknownHostException ||
-            throwable instanceof SSLHandshakeException ||
-            throwable instanceof TimeoutException) {
-            return true;
+        FailureClassifier.Category category = FailureClassifier.classify(result);
+        if (!category.isRetryable()) {
+            return false;
         }
 
-        // Check for HTTP status codes in the message
-        String message = throwable.getMessage();
-        if (message != null) {
-            if (message.contains("HTTP 500") ||
-                message.contains("HTTP 502") ||
-                message.contains("HTTP 503") ||
-                message.contains("HTTP 504")) {
-                return true;
-            }
+        String testKey = getTestKey(result);
+        int currentRetryCount = retryState.getRetryCount(result);
+        String endpoint = RequestContext.of(result).lastEndpoint();
+        RetryEngine.Decision decision = retryEngine.onFailure(endpoint != null ? endpoint : UNKNOWN_ENDPOINT,
+                                                              currentRetryCount);
+        if (!decision.shouldRetry()) {
+            System.out.println("Not retrying test " + testKey + ": " + decision.getReason());
+            return false;
         }
 
-        // Check for nested exceptions
-        Throwable cause = throwable.getCause();
-        if (cause != null && cause != throwable) {
-            return isNetworkException(cause);
-        }
+        int retryCount = retryState.incrementRetryCount(result);
+        System.out.println("Retrying test " + testKey +
+                         " due to " + category.getLabel() +
+                         " (Attempt " + retryCount +
+                         " of " + retryEngine.getMaxAttempts() + ")" +
+                         " after " + decision.getDelayMillis() + " ms");
+        retryEngine.backoff(decision.getDelayMillis());
+        return true;
+    }
 
-        return false;
+    private String getTestKey(ITestResult result) {
+        return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
     }
-} 
\ No newline at end of file
+}
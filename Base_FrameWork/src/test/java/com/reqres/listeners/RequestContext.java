@@ -0,0 +1,123 @@
+package com.reqres.listeners;
+
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+/**
+ * What one test invocation saw of the API: the endpoint and status of its last response.
+ * <p>
+ * BaseTest starts a fresh context for every invocation (a retry is a new invocation)
+ * and attaches it to the TestNG result. It is also bound to the test's thread and
+ * inherited by the threads started from there, such as ApiService's and LoadTest's
+ * virtual threads, so the RequestContextFilter in the shared spec template records
+ * into it whichever of them sends the request. Listeners and retry analyzers
+ * therefore judge a failure by the responses of that invocation only, never by a
+ * response an earlier test left behind on the same thread.
+ * <p>
+ * The attempt number of a request that RetryFilter is retrying is tracked separately,
+ * per thread, for the request in flight.
+ */
+public class RequestContext {
+    private static final String RESULT_ATTRIBUTE = RequestContext.class.getName();
+
+    private static final ThreadLocal<Integer> currentAttempt = new ThreadLocal<>();
+    // Inherited by threads created while bound; every request thread is created per task
+    private static final InheritableThreadLocal<RequestContext> current = new InheritableThreadLocal<>();
+
+    private final String latencyScope;
+    // Endpoint and status are replaced together, so readers never see a mixed pair
+    private volatile LastResponse lastResponse;
+
+    private RequestContext(String latencyScope) {
+        this.latencyScope = latencyScope;
+    }
+
+    /**
+     * Starts the context of a test invocation, attaches it to the result and binds it
+     * to the calling thread until {@link #end()}.
+     *
+     * @param testContext the {@code <test>} block the invocation runs in, for its latency scope
+     */
+    public static RequestContext start(ITestResult result, ITestContext testContext) {
+        RequestContext context = new RequestContext(LatencyRegistry.scopeOf(testContext));
+        result.setAttribute(RESULT_ATTRIBUTE, context);
+        current.set(context);
+        return context;
+    }
+
+    /**
+     * @return the context bound to this thread, or inherited from the thread that started it; null if none
+     */
+    public static RequestContext current() {
+        return current.get();
+    }
+
+    /**
+     * Unbinds the context from the calling thread once its invocation is over.
+     */
+    public static void end() {
+        current.remove();
+    }
+
+    /**
+     * @return the context of the given invocation; an empty one if it was not started through BaseTest
+     */
+    public static RequestContext of(ITestResult result) {
+        Object context = result.getAttribute(RESULT_ATTRIBUTE);
+        return context instanceof RequestContext ? (RequestContext) context : new RequestContext(LatencyRegistry.NO_SCOPE);
+    }
+
+    /**
+     * @return the LatencyRegistry scope the invocation's requests are recorded in
+     */
+    public String getLatencyScope() {
+        return latencyScope;
+    }
+
+    public void record(String endpoint, Integer statusCode) {
+        lastResponse = new LastResponse(endpoint, statusCode);
+    }
+
+    /**
+     * @return the "METHOD /path/{template}" of the invocation's last request, or null
+     */
+    public String lastEndpoint() {
+        LastResponse last = lastResponse;
+        return last == null ? null : last.endpoint;
+    }
+
+    /**
+     * @return the status code of the invocation's last response, or null if none was received
+     */
+    public Integer lastStatusCode() {
+        LastResponse last = lastResponse;
+        return last == null ? null : last.statusCode;
+    }
+
+    public static void setCurrentAttempt(int attempt) {
+        currentAttempt.set(attempt);
+    }
+
+    /**
+     * @return 1 for the first try of the request in flight on this thread, 2 for its first retry, ...;
+     * 0 when no request is in flight
+     */
+    public static int currentAttempt() {
+        Integer attempt = currentAttempt.get();
+        return attempt == null ? 0 : attempt;
+    }
+
+    public static void clearCurrentAttempt() {
+        currentAttempt.remove();
+    }
+
+    private static class LastResponse {
+        private final String endpoint;
+        private final Integer statusCode;
+
+        LastResponse(String endpoint, Integer statusCode) {
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+        }
+    }
+}
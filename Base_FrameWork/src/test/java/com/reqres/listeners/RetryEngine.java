@@ -0,0 +1,193 @@
+package com.reqres.listeners;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.reqres.config.Config;
+import com.reqres.config.ConfigSource;
+
+/**
+ * Suite-wide retry policy shared by RetryFilter (per request) and NetworkRetryAnalyzer (per test).
+ * <ul>
+ *   <li>Backoff: exponential with full jitter, a random delay between 0 and
+ *   min(maxDelay, baseDelay * 2^attempt), so parallel threads do not retry in lockstep.</li>
+ *   <li>Budget: retries may add at most budgetRatio extra test executions
+ *   (plus a small floor so short suites can still retry).</li>
+ *   <li>Circuit breaker: after N consecutive failures on an endpoint, retries for that
+ *   endpoint are refused until the open period has passed; then a single trial retry
+ *   is let through.</li>
+ * </ul>
+ * Tuned through config.properties (retry.*) with the defaults shown in the getters below.
+ * Settings are read on every decision, so a config reload applies to retries already
+ * under way; the budget and circuit counters are kept.
+ */
+public class RetryEngine {
+    private static final RetryEngine instance = new RetryEngine();
+
+    private final ConfigSource config;
+    private final LongAdder executions = new LongAdder();
+    private final AtomicLong retriesGranted = new AtomicLong();
+    private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an engine with its own budget and circuits. The suite shares {@link #getInstance()}.
+     */
+    public RetryEngine() {
+        this(Config.getSource());
+    }
+
+    /**
+     * Creates an engine with its own budget and circuits, tuned by the given configuration.
+     */
+    public RetryEngine(ConfigSource config) {
+        this.config = config;
+    }
+
+    public static RetryEngine getInstance() {
+        return instance;
+    }
+
+    public int getMaxAttempts() {
+        return config.getInt("retry.maxAttempts", 3);
+    }
+
+    /**
+     * Counts one execution (a request, or a test run) towards the retry budget.
+     */
+    public void recordExecution() {
+        executions.increment();
+    }
+
+    /**
+     * Marks a healthy response from an endpoint, closing its circuit.
+     */
+    public void recordSuccess(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        if (circuit != null) {
+            circuit.consecutiveFailures.set(0);
+            circuit.openUntil.set(0);
+        }
+    }
+
+    /**
+     * Records a retryable failure on an endpoint and decides whether the test may be retried.
+     *
+     * @param endpoint     where the failure happened
+     * @param attemptsSoFar retries already made for this test
+     * @return the backoff to wait before retrying, or a refusal with its reason
+     */
+    public Decision onFailure(String endpoint, int attemptsSoFar) {
+        return onFailure(endpoint, attemptsSoFar, getMaxAttempts());
+    }
+
+    /**
+     * Same as {@link #onFailure(String, int)} with a caller-specific limit on retries.
+     */
+    public Decision onFailure(String endpoint, int attemptsSoFar, int attemptLimit) {
+        Circuit circuit = circuits.computeIfAbsent(endpoint, key -> new Circuit());
+        int failures = circuit.consecutiveFailures.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        if (attemptsSoFar >= attemptLimit) {
+            return Decision.refuse("max attempts (" + attemptLimit + ") reached");
+        }
+        long openUntil = circuit.openUntil.get();
+        if (openUntil != 0 && now < openUntil) {
+            return Decision.refuse("circuit open for " + endpoint + " after " + failures + " consecutive failures");
+        }
+        long circuitOpenMillis = TimeUnit.SECONDS.toMillis(config.getLong("retry.circuitOpenSeconds", 30));
+        if (failures >= config.getInt("retry.circuitFailureThreshold", 5)) {
+            // Closed: trip the circuit. Half-open (open period elapsed): only the caller that
+            // re-arms the timer gets the single trial retry, everyone else is refused.
+            boolean trial = openUntil != 0 && circuit.openUntil.compareAndSet(openUntil, now + circuitOpenMillis);
+            if (!trial) {
+                circuit.openUntil.compareAndSet(0, now + circuitOpenMillis);
+                return Decision.refuse("circuit open for " + endpoint + " after " + failures + " consecutive failures");
+            }
+        }
+        if (!tryConsumeBudget()) {
+            return Decision.refuse("suite retry budget exhausted (" + retriesGranted.get() + " retries for " +
+                                   executions.sum() + " executions)");
+        }
+        return Decision.retryAfter(backoffDelayMillis(attemptsSoFar));
+    }
+
+    /**
+     * Sleeps for the backoff chosen by {@link #onFailure}.
+     */
+    public void backoff(long delayMillis) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean tryConsumeBudget() {
+        int minBudget = config.getInt("retry.minBudget", 3);
+        double budgetRatio = config.getDouble("retry.budgetRatio", 0.1);
+        while (true) {
+            long granted = retriesGranted.get();
+            long allowed = Math.max(minBudget, (long) (executions.sum() * budgetRatio));
+            if (granted >= allowed) {
+                return false;
+            }
+            if (retriesGranted.compareAndSet(granted, granted + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Full-jitter backoff: a random delay between 0 and min(maxDelay, baseDelay * 2^attempt).
+     *
+     * @param attempt number of retries already made, starting at 0
+     */
+    public long backoffDelayMillis(int attempt) {
+        long maxDelayMillis = config.getLong("retry.maxDelayMillis", 5000);
+        long baseDelayMillis = config.getLong("retry.baseDelayMillis", 200);
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static class Circuit {
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong openUntil = new AtomicLong();
+    }
+
+    public static class Decision {
+        private final boolean retry;
+        private final long delayMillis;
+        private final String reason;
+
+        private Decision(boolean retry, long delayMillis, String reason) {
+            this.retry = retry;
+            this.delayMillis = delayMillis;
+            this.reason = reason;
+        }
+
+        static Decision retryAfter(long delayMillis) {
+            return new Decision(true, delayMillis, null);
+        }
+
+        static Decision refuse(String reason) {
+            return new Decision(false, 0, reason);
+        }
+
+        public boolean shouldRetry() {
+            return retry;
+        }
+
+        public long getDelayMillis() {
+            return delayMillis;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.reqres.listeners;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.reqres.config.Config;
+import com.reqres.config.ConfigSource;
+
+/**
+ * Retry counts per test invocation, shared by NetworkRetryAnalyzer (which increments
+ * them) and TestListener (which reports them and ends the invocation).
+ * <p>
+ * An invocation is one test method on one test instance with one set of parameters,
+ * so every row of a data provider is counted separately and all retries of a row
+ * share the same count. Counts are updated atomically with {@code merge}, removed as
+ * soon as the invocation passes, fails for good or is skipped, and swept after
+ * retry.state.ttlMinutes of inactivity or when more than retry.state.maxEntries are
+ * held, so an invocation that never reports back cannot leak. Both limits are read on
+ * use, so a config reload applies to the counts already held.
+ */
+public class RetryState {
+    private static final RetryState instance = new RetryState();
+
+    private final ConcurrentHashMap<InvocationKey, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final ConfigSource config;
+
+    private RetryState() {
+        this(Config.getSource());
+    }
+
+    /**
+     * Creates counts separate from the suite's, limited by the given configuration.
+     * The suite shares {@link #getInstance()}.
+     */
+    public RetryState(ConfigSource config) {
+        this.config = config;
+    }
+
+    public static RetryState getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return retries already made for the invocation of this result
+     */
+    public int getRetryCount(ITestResult result) {
+        Entry entry = entries.get(InvocationKey.of(result));
+        return entry == null || entry.isExpired(System.nanoTime(), ttlNanos()) ? 0 : entry.retries;
+    }
+
+    /**
+     * Counts one more retry for the invocation of this result.
+     *
+     * @return the retry count including this one
+     */
+    public int incrementRetryCount(ITestResult result) {
+        long now = System.nanoTime();
+        long ttlNanos = ttlNanos();
+        Entry entry = entries.merge(InvocationKey.of(result), new Entry(1, now),
+                (old, one) -> old.isExpired(now, ttlNanos) ? one : new Entry(old.retries + 1, now));
+        sweepIfNeeded(now, ttlNanos);
+        return entry.retries;
+    }
+
+    /**
+     * Forgets the invocation of this result once it has a final outcome.
+     *
+     * @return the retries made for it
+     */
+    public int endInvocation(ITestResult result) {
+        Entry entry = entries.remove(InvocationKey.of(result));
+        return entry == null ? 0 : entry.retries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private long ttlNanos() {
+        return TimeUnit.MINUTES.toNanos(config.getLong("retry.state.ttlMinutes", 30));
+    }
+
+    private void sweepIfNeeded(long now, long ttlNanos) {
+        int maxEntries = config.getInt("retry.state.maxEntries", 10_000);
+        long last = lastSweep.get();
+        boolean due = now - last > ttlNanos / 10 || entries.size() > maxEntries;
+        if (!due || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.isExpired(now, ttlNanos));
+        if (entries.size() > maxEntries) {
+            // Still over the cap with live entries: drop the least recently updated ones.
+            // Entries may end concurrently, so the cutoff is taken from the snapshot alone.
+            long[] updates = entries.values().stream().mapToLong(entry -> entry.updatedNanos).sorted().toArray();
+            if (updates.length > maxEntries) {
+                long cutoff = updates[updates.length - maxEntries];
+                entries.values().removeIf(entry -> entry.updatedNanos < cutoff);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final int retries;
+        private final long updatedNanos;
+
+        Entry(int retries, long updatedNanos) {
+            this.retries = retries;
+            this.updatedNanos = updatedNanos;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - updatedNanos > ttlNanos;
+        }
+    }
+
+    /**
+     * Identifies an invocation by the method and test instance (by identity) and the
+     * parameter values (by value), without building strings.
+     */
+    private static final class InvocationKey {
+        private final ITestNGMethod method;
+        private final Object instance;
+        private final Object[] parameters;
+        private final int hash;
+
+        private InvocationKey(ITestNGMethod method, Object instance, Object[] parameters) {
+            this.method = method;
+            this.instance = instance;
+            this.parameters = parameters;
+            this.hash = 31 * (31 * System.identityHashCode(method) + System.identityHashCode(instance)) +
+                        Arrays.deepHashCode(parameters);
+        }
+
+        static InvocationKey of(ITestResult result) {
+            Object[] parameters = result.getParameters();
+            return new InvocationKey(result.getMethod(), result.getInstance(),
+                                     parameters == null ? new Object[0] : parameters);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof InvocationKey)) {
+                return false;
+            }
+            InvocationKey key = (InvocationKey) other;
+            return method == key.method && instance == key.instance && Arrays.deepEquals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
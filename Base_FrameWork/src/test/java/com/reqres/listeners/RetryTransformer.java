@@ -0,0 +1,27 @@
+package com.reqres.listeners;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Attaches {@link NetworkRetryAnalyzer} to every test that does not declare its own retry analyzer.
+ * Not registered in testng.xml: BaseTest's RetryFilter already retries failed requests, and
+ * re-running the whole method on top of that would multiply the calls.
+ */
+public class RetryTransformer implements IAnnotationTransformer {
+
+    @Override
+    public void transform(ITestAnnotation annotation,
+                          Class testClass,
+                          Constructor testConstructor,
+                          Method testMethod) {
+        Class<?> retry = annotation.getRetryAnalyzerClass();
+        if (retry == null || retry == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(NetworkRetryAnalyzer.class);
+        }
+    }
+}
@@ -3,12 +3,6 @@ package com.reqres.listeners;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import java.util.concurrent.ConcurrentHashMap;
-import java.net.SocketTimeoutException;
-import java.net.ConnectException;
-import java.net.UnknownHostException;
-import javax.net.ssl.SSLHandshakeException;
-import java.util.concurrent.TimeoutException;
 
 /**
  * This class implements the ITestListener interface from TestNG to listen to 
@@ -20,8 +14,8 @@ import java.util.concurrent.TimeoutException;
  * @author Sangamnath Ingalalli
  */
 public class TestListener implements ITestListener {
-    private final ConcurrentHashMap<String, Integer> retryCountMap = new ConcurrentHashMap<>();
-    private static final int MAX_RETRY_COUNT = 3;
+    private final RetryState retryState = RetryState.getInstance();
+    private final RetryEngine retryEngine = RetryEngine.getInstance();
 
     /**
      * Called before the test suite starts executing.
@@ -53,6 +47,9 @@ public class TestListener implements ITestListener {
         System.out.println("Total tests run: " + context.getPassedTests().size() + 
                            " passed, " + context.getFailedTests().size() + 
                            " failed, " + context.getSkippedTests().size() + " skipped");
+        // Log how the failures seen so far in the run break down by category
+        FailureClassifier.getCounts().forEach((category, count) ->
+                System.out.println("Failures - " + category.getLabel() + ": " + count));
     }
 
     /**
@@ -66,6 +63,10 @@ public class TestListener implements ITestListener {
     public void onTestStart(ITestResult result) {
         // Log that the specific test method has started
         System.out.println("Test Method: " + getTestName(result) + " is starting");
+        // Every execution the retry analyzer may repeat, retries included, counts towards the suite retry budget
+        if (result.getMethod().getRetryAnalyzerClass() == NetworkRetryAnalyzer.class) {
+            retryEngine.recordExecution();
+        }
     }
 
     /**
@@ -85,8 +86,13 @@ public class TestListener implements ITestListener {
         }
         // Log the duration for the test method
         logTestDuration(result);
-        // Reset retry count on success
-        retryCountMap.remove(getTestKey(result));
+        // A passing test closes the circuit of the endpoint it last called
+        String endpoint = RequestContext.of(result).lastEndpoint();
+        if (endpoint != null) {
+            retryEngine.recordSuccess(endpoint);
+        }
+        // The invocation is over, forget its retry count
+        retryState.endInvocation(result);
     }
 
     /**
@@ -100,28 +106,17 @@ public class TestListener implements ITestListener {
     @Override
     public void onTestFailure(ITestResult result) {
         Throwable throwable = result.getThrowable();
-        String failureType = getFailureType(throwable);
+        FailureClassifier.Category category = FailureClassifier.classify(result);
+        FailureClassifier.record(category);
+        String failureType = category.getLabel();
         
-        if (shouldRetry(result)) {
-            int retryCount = retryCountMap.getOrDefault(getTestKey(result), 0);
-            retryCount++;
-            retryCountMap.put(getTestKey(result), retryCount);
-            
-            System.out.println("Retrying test " + getTestName(result) + 
-                             " due to network exception: " + failureType + 
-                             " (Attempt " + retryCount + " of " + MAX_RETRY_COUNT + ")");
-            result.setStatus(ITestResult.SKIP);
+        // Retries are decided by NetworkRetryAnalyzer/RetryEngine; a retried attempt is
+        // reported through onTestSkipped, so every failure seen here ends the invocation
+        int retryCount = retryState.endInvocation(result);
+        if (retryCount > 0) {
+            System.out.println("Test Method: " + getTestName(result) + " FAILED after " + retryCount +
+                               " of " + retryEngine.getMaxAttempts() + " retry attempts");
         } else {
-            if (result.wasRetried()) {
-                System.out.println("Test Method: " + getTestName(result) + " FAILED after all retry attempts");
-            } else {
-                System.out.println("Test Method: " + getTestName(result) + " FAILED");
-            }
-            System.out.println("Failure Type: " + failureType);
-            System.out.println("Failure Reason: " + throwable.getMessage());
-            logTestDuration(result);
-            // Reset retry count on final failure
-            retryCountMap.remove(getTestKey(result));
             System.out.println("Test Method: " + getTestName(result) + " FAILED");
         }
         
@@ -139,6 +134,14 @@ public class TestListener implements ITestListener {
      */
     @Override
     public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            FailureClassifier.record(FailureClassifier.classify(result));
+            int retryCount = retryState.getRetryCount(result);
+            System.out.println("Test Method: " + getTestName(result) + " will be retried (Attempt " +
+                               retryCount + " of " + retryEngine.getMaxAttempts() + ")");
+            return;
+        }
+        retryState.endInvocation(result);
         System.out.println("Test Method: " + getTestName(result) + " was SKIPPED");
         if (result.getThrowable() != null) {
             System.out.println("Skip Reason: " + result.getThrowable().getMessage());
@@ -186,52 +189,4 @@ public class TestListener implements ITestListener {
         long duration = result.getEndMillis() - result.getStartMillis();
         System.out.println("Test duration: " + duration + "ms");
     }
-
-    private String getTestKey(ITestResult result) {
-        return result.getTestClass().getName() + "." + result.getMethod().getMethodName();
-    }
-
-    private boolean shouldRetry(ITestResult result) {
-        Throwable throwable = result.getThrowable();
-        if (throwable == null) return false;
-        
-        return isNetworkException(throwable) && 
-               retryCountMap.getOrDefault(getTestKey(result), 0) < MAX_RETRY_COUNT;
-    }
-
-    private String getFailureType(Throwable throwable) {
-        if (throwable instanceof SocketTimeoutException) return "Connection/Read Timeout";
-        if (throwable instanceof ConnectException) return "Connection Refused";
-        if (throwable instanceof UnknownHostException) return "DNS Resolution Failure";
-        if (throwable instanceof SSLHandshakeException) return "SSL Handshake Failure";
-        if (throwable instanceof TimeoutException) return "General Timeout";
-        
-        String message = throwable.getMessage();
-        if (message != null) {
-            if (message.contains("HTTP 500")) return "Internal Server Error";
-            if (message.contains("HTTP 502")) return "Bad Gateway";
-            if (message.contains("HTTP 503")) return "Service Unavailable";
-            if (message.contains("HTTP 504")) return "Gateway Timeout";
-        }
-        return "Unknown Error";
-    }
-
-    private boolean isNetworkException(Throwable throwable) {
-        String message = throwable.getMessage();
-        if (message != null) {
-            if (message.contains("HTTP 500") ||
-                message.contains("HTTP 502") ||
-                message.contains("HTTP 503") ||
-                message.contains("HTTP 504")) {
-                return true;
-            }
-        }
-
-        Throwable cause = throwable.getCause();
-        if (cause != null && cause != throwable) {
-            return isNetworkException(cause);
-        }
-
-        return false;
-    }
 }
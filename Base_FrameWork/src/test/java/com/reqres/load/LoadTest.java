@@ -0,0 +1,143 @@
+package com.reqres.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Recorder;
+
+import io.restassured.response.Response;
+
+/**
+ * Runs an existing ApiService call repeatedly for a fixed duration and
+ * measures it as a load test.
+ * <ul>
+ *   <li>Closed model: a fixed number of workers each issue the next request as
+ *   soon as the previous one returns.</li>
+ *   <li>Open model: requests are started at a constant arrival rate regardless of
+ *   how long earlier requests take. Latency is measured from the scheduled start,
+ *   so a slow server is not hidden by requests that were started late.</li>
+ * </ul>
+ * Latencies go into an HdrHistogram, so memory stays constant however long the run is.
+ * Usage example:
+ * <pre>
+ * LoadTestResult result = LoadTest.openModel(50, Duration.ofSeconds(30))
+ *         .run("getUserById", () -&gt; apiService.getUserById(2, getRequestSpec()));
+ * </pre>
+ */
+public class LoadTest {
+    private final Integer concurrency;
+    private final Double requestsPerSecond;
+    private final Duration duration;
+
+    private LoadTest(Integer concurrency, Double requestsPerSecond, Duration duration) {
+        this.concurrency = concurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+    }
+
+    public static LoadTest closedModel(int concurrency, Duration duration) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, was " + concurrency);
+        }
+        return new LoadTest(concurrency, null, duration);
+    }
+
+    public static LoadTest openModel(double requestsPerSecond, Duration duration) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive, was " + requestsPerSecond);
+        }
+        return new LoadTest(null, requestsPerSecond, duration);
+    }
+
+    public LoadTestResult run(String name, Supplier<Response> scenario) throws InterruptedException {
+        Samples samples = new Samples();
+        long start = System.nanoTime();
+        if (concurrency != null) {
+            runClosed(scenario, samples, start);
+        } else {
+            runOpen(scenario, samples, start);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return samples.toResult(name, elapsed);
+    }
+
+    private void runClosed(Supplier<Response> scenario, Samples samples, long start) throws InterruptedException {
+        long deadline = start + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        samples.execute(scenario, System.nanoTime());
+                    }
+                });
+            }
+            workers.shutdown();
+            awaitCompletion(workers);
+        }
+    }
+
+    private void runOpen(Supplier<Response> scenario, Samples samples, long start) throws InterruptedException {
+        long intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        long totalRequests = (long) (requestsPerSecond * duration.toNanos() / 1_000_000_000.0);
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalRequests; i++) {
+                long scheduledStart = start + i * intervalNanos;
+                long wait = scheduledStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                requests.submit(() -> samples.execute(scenario, scheduledStart));
+            }
+            requests.shutdown();
+            awaitCompletion(requests);
+        }
+    }
+
+    private void awaitCompletion(ExecutorService executor) throws InterruptedException {
+        // Give in-flight requests time to finish after the load window closes
+        if (!executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Thread-safe sink for latencies and outcomes from concurrent workers.
+     */
+    private static class Samples {
+        // Microseconds, 3 significant digits, like LatencyRegistry
+        private final Recorder latencies = new Recorder(3);
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        void execute(Supplier<Response> scenario, long startNanos) {
+            String outcome;
+            boolean failed;
+            try {
+                int statusCode = scenario.get().getStatusCode();
+                outcome = String.valueOf(statusCode);
+                failed = statusCode >= 400;
+            } catch (RuntimeException e) {
+                outcome = e.getClass().getSimpleName();
+                failed = true;
+            }
+            latencies.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)));
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        LoadTestResult toResult(String name, Duration elapsed) {
+            Map<String, Long> counts = new ConcurrentHashMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return new LoadTestResult(name, elapsed, latencies.getIntervalHistogram(), counts, errors.sum());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.reqres.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one load run: latency percentiles, achieved throughput and
+ * how responses were distributed across status codes.
+ */
+public class LoadTestResult {
+    private final String name;
+    private final Duration elapsed;
+    private final Histogram latenciesMicros;
+    private final Map<String, Long> outcomeCounts;
+    private final long errors;
+
+    LoadTestResult(String name, Duration elapsed, Histogram latenciesMicros,
+                   Map<String, Long> outcomeCounts, long errors) {
+        this.name = name;
+        this.elapsed = elapsed;
+        this.latenciesMicros = latenciesMicros;
+        this.outcomeCounts = new TreeMap<>(outcomeCounts);
+        this.errors = errors;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTotalRequests() {
+        return latenciesMicros.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        return getTotalRequests() == 0 ? 0 : (double) errors / getTotalRequests();
+    }
+
+    public double getThroughputPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : getTotalRequests() / seconds;
+    }
+
+    /**
+     * @return counts keyed by HTTP status code, or by exception type for requests that never got a response
+     */
+    public Map<String, Long> getOutcomeCounts() {
+        return outcomeCounts;
+    }
+
+    /**
+     * @param percentile value between 0 and 100, e.g. 99.9
+     * @return the latency at that percentile, in milliseconds
+     */
+    public double getLatencyMillis(double percentile) {
+        if (latenciesMicros.getTotalCount() == 0) {
+            return 0;
+        }
+        return latenciesMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public String summary() {
+        return String.format(
+                "Load run '%s': %d requests in %d ms (%.1f req/s), errors %d (%.2f%%)%n" +
+                "  latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n" +
+                "  outcomes: %s",
+                name, getTotalRequests(), elapsed.toMillis(), getThroughputPerSecond(),
+                errors, getErrorRate() * 100,
+                getLatencyMillis(50), getLatencyMillis(90), getLatencyMillis(99), getLatencyMillis(99.9),
+                getLatencyMillis(100), outcomeCounts);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
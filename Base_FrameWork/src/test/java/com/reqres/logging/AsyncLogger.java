@@ -0,0 +1,317 @@
+package com.reqres.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous logger that keeps formatting and I/O off the calling thread.
+ * <p>
+ * Callers only append an event to a preallocated ring buffer, claiming a slot with a
+ * single compare-and-set: no lock and no allocation besides the event itself, so
+ * logging threads never wait on each other. A single daemon writer thread sleeps
+ * until events arrive, drains them in batches, formats each event and writes it to
+ * the log file, flushing once per batch. When the ring is full the configured policy
+ * applies: DROP discards the event and counts it, BLOCK makes the caller wait for
+ * space. Once the writer has stopped, either because {@link #close()} was called or
+ * because the file could not be written, nobody waits any more: late events are
+ * appended to the file directly, or counted as dropped if the file is unusable.
+ * <p>
+ * Configured through system properties: log.file (default target/logs/test-run.log),
+ * log.capacity (default 8192, rounded up to a power of two), log.policy (DROP or
+ * BLOCK, default DROP),
+ * log.batchSize (default 256) and log.console (also echo to stdout, default false).
+ */
+public class AsyncLogger {
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final AsyncLogger instance = new AsyncLogger(
+            Paths.get(System.getProperty("log.file", "target/logs/test-run.log")),
+            Integer.getInteger("log.capacity", 8192),
+            OverflowPolicy.valueOf(System.getProperty("log.policy", "DROP").toUpperCase()),
+            Integer.getInteger("log.batchSize", 256),
+            Boolean.getBoolean("log.console"));
+
+    // How long a caller waits for space under BLOCK before checking again
+    private static final long BLOCK_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final EventRing ring;
+    private final LongAdder dropped = new LongAdder();
+    private final OverflowPolicy policy;
+    private final int batchSize;
+    private final boolean console;
+    private final Path file;
+    private final Thread writer;
+    private long reportedDrops; // touched by the writer thread, then under this object's lock
+    private volatile boolean closing;
+    private volatile boolean writerParked; // set by the writer before it sleeps on an empty ring
+    private volatile boolean running = true; // the writer thread is draining the queue
+    private volatile boolean failed;
+
+    private AsyncLogger(Path file, int capacity, OverflowPolicy policy, int batchSize, boolean console) {
+        this.file = file;
+        this.ring = new EventRing(capacity);
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.console = console;
+        this.writer = new Thread(this::drainLoop, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "async-log-shutdown"));
+    }
+
+    public static AsyncLogger getInstance() {
+        return instance;
+    }
+
+    public void info(String message) {
+        enqueue(new Event("INFO", message, null));
+    }
+
+    /**
+     * Logs a message whose String.format formatting is deferred to the writer thread.
+     */
+    public void info(String format, Object... args) {
+        enqueue(new Event("INFO", format, args));
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void enqueue(Event event) {
+        if (!running) {
+            writeDirect(event);
+        } else if (policy == OverflowPolicy.DROP) {
+            if (ring.offer(event)) {
+                wakeWriter();
+            } else {
+                dropped.increment();
+            }
+        } else {
+            while (!ring.offer(event)) {
+                // The writer may have died while we were waiting for space
+                if (!running) {
+                    writeDirect(event);
+                    return;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    dropped.increment();
+                    return;
+                }
+                wakeWriter();
+                LockSupport.parkNanos(BLOCK_PAUSE_NANOS);
+            }
+            wakeWriter();
+        }
+    }
+
+    private void wakeWriter() {
+        // The writer sets the flag before its last look at the ring, and offer() publishes
+        // the event before the flag is read here, so one of the two sees the other
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drainLoop() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                while (!closing || !ring.isEmpty()) {
+                    if (ring.drainTo(batch, batchSize) == 0 && !closing) {
+                        writerParked = true;
+                        if (ring.isEmpty() && !closing) {
+                            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                        }
+                        writerParked = false;
+                        ring.drainTo(batch, batchSize);
+                    }
+                    writeBatch(out, batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            System.err.println("Async logger stopped, cannot write " + file + ": " + e);
+        } finally {
+            running = false;
+        }
+    }
+
+    private void writeBatch(BufferedWriter out, List<Event> batch) throws IOException {
+        boolean written = false;
+        for (Event event : batch) {
+            String line = event.format();
+            out.write(line);
+            out.newLine();
+            if (console) {
+                System.out.println(line);
+            }
+            written = true;
+        }
+        long newDrops = dropped.sum() - reportedDrops;
+        if (newDrops > 0) {
+            reportedDrops += newDrops;
+            out.write(Instant.now() + " [WARN] [async-log-writer] " + newDrops + " log events dropped");
+            out.newLine();
+        }
+        if (written || newDrops > 0) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes on the calling thread once the writer is gone, together with anything
+     * still left in the queue.
+     */
+    private synchronized void writeDirect(Event event) {
+        List<Event> late = new ArrayList<>();
+        ring.drainTo(late, Integer.MAX_VALUE);
+        late.add(event);
+        if (failed) {
+            dropped.add(late.size());
+            return;
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writeBatch(out, late);
+        } catch (IOException e) {
+            failed = true;
+            dropped.add(late.size());
+        }
+    }
+
+    /**
+     * Stops the writer once it has flushed the backlog, waiting up to five seconds.
+     * Events logged afterwards are written synchronously.
+     */
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer ring of preallocated slots. Each slot has
+     * a sequence number that tells whose turn it is: a producer may fill slot i for
+     * position p when its sequence is p, and publishes the event by setting it to p + 1;
+     * the consumer takes it then and hands the slot to the next lap with p + capacity.
+     * <p>
+     * Consumed by the writer thread only, or, once the writer has stopped, by
+     * writeDirect, which is synchronized and only runs after the writer's last drain.
+     */
+    private static final class EventRing {
+        private final Event[] slots;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong(); // next position to claim
+        private long head; // next position to consume, see above
+
+        EventRing(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            slots = new Event[size];
+            sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+            mask = size - 1;
+        }
+
+        /**
+         * @return false if the ring is full
+         */
+        boolean offer(Event event) {
+            while (true) {
+                long position = tail.get();
+                int index = (int) position & mask;
+                long lag = sequences.get(index) - position;
+                if (lag < 0) {
+                    // The slot still holds the event from the previous lap
+                    return false;
+                }
+                if (lag == 0 && tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                // Another producer claimed the position first
+            }
+        }
+
+        /**
+         * Moves up to max published events into the list, in order.
+         *
+         * @return the number of events moved
+         */
+        int drainTo(List<Event> batch, int max) {
+            int count = 0;
+            while (count < max) {
+                int index = (int) head & mask;
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                batch.add(slots[index]);
+                slots[index] = null;
+                sequences.set(index, head + slots.length);
+                head++;
+                count++;
+            }
+            return count;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int) head & mask) != head + 1;
+        }
+    }
+
+    private static class Event {
+        private final long timestamp = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private final String level;
+        private final String message;
+        private final Object[] args;
+
+        Event(String level, String message, Object[] args) {
+            this.level = level;
+            this.message = message;
+            this.args = args;
+        }
+
+        String format() {
+            String text;
+            try {
+                text = args == null || args.length == 0 ? message : String.format(message, args);
+            } catch (IllegalFormatException e) {
+                // A bad format string must not take the writer thread down
+                text = message + " " + Arrays.toString(args);
+            }
+            return Instant.ofEpochMilli(timestamp) + " [" + level + "] [" + threadName + "] " + text;
+        }
+    }
+}
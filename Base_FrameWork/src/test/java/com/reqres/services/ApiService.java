@@ -4,19 +4,35 @@ import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.requestSpecification;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.reqres.config.Config;
+import com.reqres.logging.AsyncLogger;
 import com.reqres.models.User;
-import com.reqres.utils.JsonUtils;
+import com.reqres.models.UserData;
+import com.reqres.utils.FanOut;
 import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 public class ApiService {
     // Thread-safe singleton pattern
     private static final ThreadLocal<ApiService> instance = ThreadLocal.withInitial(ApiService::new);
-    private static final String BASE_URI = Config.getBaseURI();
+    private static final AsyncLogger log = AsyncLogger.getInstance();
+    // Virtual threads keep thousands of in-flight requests off the TestNG worker pool
+    private static final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     private ApiService() {
         // Private constructor to prevent instantiation
@@ -27,11 +43,9 @@ public class ApiService {
     }
 
     public Response getUserById(int userId, RequestSpecification spec) {
-        System.out.println("Hitting URL: " + BASE_URI + "/users/" + userId);
+        log.info("Hitting URL: %s/users/%d", Config.getBaseURI(), userId);
         return given()
                 .spec(spec)
-                .contentType(ContentType.JSON)
-                .baseUri(BASE_URI)
                 .when()
                 .get("/users/{id}", userId)
                 .then()
@@ -40,11 +54,9 @@ public class ApiService {
     }
 
     public Response getUsersByPage(int page, RequestSpecification spec) {
-        System.out.println("Hitting URL: " + BASE_URI + "/users?page=" + page);
+        log.info("Hitting URL: %s/users?page=%d", Config.getBaseURI(), page);
         return given()
                 .spec(spec)
-                .contentType(ContentType.JSON)
-                .baseUri(BASE_URI)
                 .when()
                 .get("/users?page={page}", page)
                 .then()
@@ -52,10 +64,63 @@ public class ApiService {
                 .response();
     }
 
+    public CompletableFuture<Response> getUserByIdAsync(int userId, RequestSpecification spec) {
+        return submitAsync(() -> getUserById(userId, spec));
+    }
+
+    public CompletableFuture<Response> getUsersByPageAsync(int page, RequestSpecification spec) {
+        return submitAsync(() -> getUsersByPage(page, spec));
+    }
+
+    public List<Response> getUsersByIds(List<Integer> userIds, RequestSpecification spec, Duration deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        List<CompletableFuture<Response>> futures = userIds.stream()
+                .map(userId -> getUserByIdAsync(userId, spec))
+                .toList();
+        return FanOut.joinAll(futures, deadline);
+    }
+
+    public UserPageIterator iterateAllUsers(RequestSpecification spec, int prefetchWindow) {
+        return new UserPageIterator(this, spec, prefetchWindow);
+    }
+
+    /**
+     * Streams every user, in the order their pages arrive. Close the stream if it is
+     * abandoned before the end (e.g. after findFirst) to cancel the remaining prefetches.
+     */
+    public Stream<UserData> streamAllUsers(RequestSpecification spec, int prefetchWindow) {
+        UserPageIterator iterator = iterateAllUsers(spec, prefetchWindow);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    public TypedResponse<User> getUser(int userId, RequestSpecification spec) {
+        return new TypedResponse<>(getUserById(userId, spec), User.class);
+    }
+
     public User getUserObjectById(int userId, RequestSpecification spec) throws IOException {
-        Response response = getUserById(userId, spec);
-        User user = JsonUtils.getObjectMapper().readValue(response.asString(), User.class);
-        
-        return user;
+        return getUser(userId, spec).getBody();
+    }
+
+    /**
+     * Runs the request on a virtual thread. Unlike supplyAsync, cancelling the returned
+     * future interrupts that thread, which aborts its blocking socket I/O, so a cancelled
+     * request does not keep running in the background.
+     */
+    private static <T> CompletableFuture<T> submitAsync(Supplier<T> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = asyncExecutor.submit(() -> {
+            try {
+                result.complete(request.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.reqres.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.reqres.utils.JsonUtils;
+import io.restassured.response.Response;
+
+/**
+ * Pairs the raw RestAssured {@link Response} of a single request with its body
+ * bound to a model class. The body is only deserialized the first time
+ * {@link #getBody()} is called, straight from the response input stream, so
+ * status-only checks never pay for JSON binding.
+ *
+ * @param <T> the model type the response body is bound to
+ */
+public class TypedResponse<T> {
+    private final Response response;
+    private final Class<T> type;
+    private T body;
+
+    public TypedResponse(Response response, Class<T> type) {
+        this.response = response;
+        this.type = type;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    public T getBody() throws IOException {
+        if (body == null) {
+            try (InputStream in = response.asInputStream()) {
+                body = JsonUtils.read(in, type);
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,138 @@
+package com.reqres.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.reqres.models.UserData;
+import com.reqres.models.UserPage;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Iterates over every user across all pages of {@code /users?page=}.
+ * <p>
+ * The first page is fetched up front to learn {@code total_pages}; the remaining
+ * pages are then prefetched concurrently, keeping at most {@code window} pages in
+ * flight. Pages are consumed in the order their responses arrive, not in page
+ * order, so one slow page does not hold back the others. No more than the current
+ * page plus the in-flight window is ever held in memory.
+ * <p>
+ * Closing the iterator (or the stream returned by ApiService.streamAllUsers)
+ * before the last page cancels the prefetches still in flight.
+ */
+public class UserPageIterator implements Iterator<UserData>, AutoCloseable {
+    private final ApiService apiService;
+    private final RequestSpecification spec;
+    private final int window;
+    private final int totalPages;
+    // Requested and not yet consumed, with the request behind each page; only touched by the iterating thread
+    private final Map<CompletableFuture<UserPage>, CompletableFuture<Response>> pending = new HashMap<>();
+    // Filled by the request threads as pages complete, in arrival order
+    private final BlockingQueue<CompletableFuture<UserPage>> arrived = new LinkedBlockingQueue<>();
+    private int nextPageToRequest;
+    private Iterator<UserData> current;
+    private boolean closed;
+
+    UserPageIterator(ApiService apiService, RequestSpecification spec, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Prefetch window must be at least 1, was " + window);
+        }
+        this.apiService = apiService;
+        this.spec = spec;
+        this.window = window;
+
+        UserPage firstPage = toPage(apiService.getUsersByPage(1, spec));
+        this.totalPages = firstPage.getTotalPages();
+        this.current = iteratorOf(firstPage);
+        this.nextPageToRequest = 2;
+        fillWindow();
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed && !current.hasNext()) {
+            if (pending.isEmpty()) {
+                return false;
+            }
+            CompletableFuture<UserPage> nextPage = takeArrived();
+            pending.remove(nextPage);
+            try {
+                current = iteratorOf(nextPage.join());
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            fillWindow();
+        }
+        return !closed;
+    }
+
+    @Override
+    public UserData next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Stops iterating and cancels the page requests still in flight.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        // Cancelling the request (not the binding stage) interrupts it, see ApiService
+        pending.values().forEach(request -> request.cancel(true));
+        pending.clear();
+        arrived.clear();
+        current = Collections.emptyIterator();
+    }
+
+    private CompletableFuture<UserPage> takeArrived() {
+        try {
+            return arrived.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for a users page", e);
+        }
+    }
+
+    private void fillWindow() {
+        while (pending.size() < window && nextPageToRequest <= totalPages) {
+            // Binding runs on the virtual thread that completed the request
+            CompletableFuture<Response> request = apiService.getUsersByPageAsync(nextPageToRequest++, spec);
+            CompletableFuture<UserPage> page = request.thenApply(UserPageIterator::toPage);
+            pending.put(page, request);
+            page.whenComplete((value, error) -> arrived.add(page));
+        }
+    }
+
+    private static Iterator<UserData> iteratorOf(UserPage page) {
+        return page.getData() == null ? Collections.emptyIterator() : page.getData().iterator();
+    }
+
+    private static UserPage toPage(Response response) {
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Listing users failed with status " + response.getStatusCode() +
+                                            ": " + response.getStatusLine());
+        }
+        try {
+            return new TypedResponse<>(response, UserPage.class).getBody();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind users page", e);
+        }
+    }
+}
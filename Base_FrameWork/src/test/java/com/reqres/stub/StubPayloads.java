@@ -0,0 +1,95 @@
+package com.reqres.stub;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.reqres.models.Support;
+import com.reqres.models.User;
+import com.reqres.models.UserData;
+import com.reqres.models.UserPage;
+import com.reqres.utils.JsonUtils;
+
+/**
+ * reqres.in-shaped response bodies for the stub server and the benchmarks:
+ * the 12 users reqres.in serves, 6 per page, serialized from the same models the
+ * tests bind to, so the suite's assertions hold offline too.
+ */
+public class StubPayloads {
+    public static final int TOTAL_USERS = 12;
+    public static final int PER_PAGE = 6;
+    public static final byte[] NOT_FOUND = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final String[][] NAMES = {
+            {"George", "Bluth"}, {"Janet", "Weaver"}, {"Emma", "Wong"}, {"Eve", "Holt"},
+            {"Charles", "Morris"}, {"Tracey", "Ramos"}, {"Michael", "Lawson"}, {"Lindsay", "Ferguson"},
+            {"Tobias", "Funke"}, {"Byron", "Fields"}, {"George", "Edwards"}, {"Rachel", "Howell"}
+    };
+
+    private StubPayloads() {
+        // Utility class
+    }
+
+    public static boolean userExists(int id) {
+        return id >= 1 && id <= TOTAL_USERS;
+    }
+
+    public static UserData userData(int id) {
+        UserData data = new UserData();
+        data.setId(id);
+        String[] name = NAMES[id - 1];
+        data.setEmail(name[0].toLowerCase(Locale.ROOT) + "." + name[1].toLowerCase(Locale.ROOT) + "@reqres.in");
+        data.setFirstName(name[0]);
+        data.setLastName(name[1]);
+        data.setAvatar("https://reqres.in/img/faces/" + id + "-image.jpg");
+        return data;
+    }
+
+    public static Support support() {
+        Support support = new Support();
+        support.setUrl("https://reqres.in/#support-heading");
+        support.setText("To keep ReqRes free, contributions towards server costs are appreciated!");
+        return support;
+    }
+
+    public static User user(int id) {
+        User user = new User();
+        user.setUserData(userData(id));
+        user.setSupport(support());
+        return user;
+    }
+
+    public static UserPage page(int page) {
+        UserPage userPage = new UserPage();
+        userPage.setPage(page);
+        userPage.setPerPage(PER_PAGE);
+        userPage.setTotal(TOTAL_USERS);
+        userPage.setTotalPages((TOTAL_USERS + PER_PAGE - 1) / PER_PAGE);
+        List<UserData> data = new ArrayList<>();
+        for (int id = (page - 1) * PER_PAGE + 1; id <= Math.min(page * PER_PAGE, TOTAL_USERS); id++) {
+            data.add(userData(id));
+        }
+        userPage.setData(data);
+        userPage.setSupport(support());
+        return userPage;
+    }
+
+    public static byte[] userJson(int id) {
+        return toJson(user(id));
+    }
+
+    public static byte[] pageJson(int page) {
+        return toJson(page(page));
+    }
+
+    private static byte[] toJson(Object value) {
+        try {
+            return JsonUtils.toJsonBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.reqres.stub;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.reqres.config.Config;
+
+/**
+ * Embedded, non-blocking HTTP/1.1 server that stands in for reqres.in.
+ * <p>
+ * Serves {@code GET /users/{id}} and {@code GET /users?page=N} with bodies shaped
+ * like the User and UserPage models (see StubPayloads). One selector thread
+ * handles every connection; keep-alive is supported, and each connection has at
+ * most one request in progress, so responses always come back in order.
+ * <p>
+ * Faults can be injected to test resilience and measure the framework:
+ * <ul>
+ *   <li>latency: a fixed delay plus random jitter before each response, scheduled
+ *   off the selector thread so slow responses do not hold up other connections</li>
+ *   <li>error rate: the share of requests answered with the error status instead</li>
+ *   <li>payload size: JSON whitespace appended to every body, which keeps it valid
+ *   and bindable while making it larger</li>
+ * </ul>
+ * Enable it for the suite with {@code stub.enabled=true} (config.properties,
+ * -Dstub.enabled or STUB_ENABLED), see {@link #getInstance()}.
+ */
+public class StubServer implements AutoCloseable {
+    private static final int READ_BUFFER_BYTES = 8192;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final byte[] NOT_ALLOWED = "{\"error\":\"method not allowed\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INJECTED_ERROR = "{\"error\":\"injected by stub server\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static volatile StubServer instance;
+
+    private final Settings settings;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread selectorThread;
+    private final ScheduledExecutorService delayer;
+    private final Queue<Runnable> pendingResponses = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, byte[]> bodies = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public StubServer(Settings settings) throws IOException {
+        this.settings = settings;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", settings.port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        delayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stub-server-delayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        selectorThread = new Thread(this::runLoop, "stub-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * @return the suite-wide stub server configured from the stub.* properties, started on first use
+     */
+    public static StubServer getInstance() {
+        if (instance == null) {
+            synchronized (StubServer.class) {
+                if (instance == null) {
+                    try {
+                        instance = new StubServer(Settings.fromConfig());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to start stub server", e);
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "stub-server-shutdown"));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true when the suite should run against the stub server instead of baseURI
+     */
+    public static boolean isEnabled() {
+        return Config.getBoolean("stub.enabled", false);
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        delayer.shutdownNow();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable pending;
+                while ((pending = pendingResponses.poll()) != null) {
+                    try {
+                        pending.run();
+                    } catch (RuntimeException e) {
+                        // e.g. CancelledKeyException: the client went away during the delay
+                        System.err.println("Stub server dropped a delayed response: " + e);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        closeConnection(key);
+                    } catch (RuntimeException e) {
+                        // A failure on one connection must not take the selector thread down
+                        System.err.println("Stub server closed a connection after an error: " + e);
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Stub server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeConnection(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        if (!connection.in.hasRemaining()) {
+            connection.in = ByteBuffer.allocate(connection.in.capacity() * 2).put(connection.in.flip());
+        }
+        if (channel.read(connection.in) < 0) {
+            closeConnection(key);
+            return;
+        }
+        handleBufferedRequest(key, connection);
+    }
+
+    /**
+     * Parses one complete request from the connection's buffer, if there is one, and
+     * answers it (now, or after the injected latency). Reading pauses until the
+     * response has been written, so pipelined requests are answered in order.
+     */
+    private void handleBufferedRequest(SelectionKey key, Connection connection) {
+        int headerEnd = indexOf(connection.in, HEADER_END);
+        if (headerEnd < 0) {
+            return;
+        }
+        String head = new String(connection.in.array(), 0, headerEnd, StandardCharsets.ISO_8859_1);
+        int requestLength = headerEnd + HEADER_END.length + contentLength(head);
+        if (connection.in.position() < requestLength) {
+            return;
+        }
+        // Keep any bytes of the next (pipelined) request for later
+        connection.in.flip().position(requestLength);
+        connection.in.compact();
+
+        byte[] response = respond(head, connection);
+        key.interestOps(0);
+        long delay = settings.latencyMillis +
+                     (settings.latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(settings.latencyJitterMillis + 1) : 0);
+        if (delay <= 0) {
+            queueResponse(key, connection, response);
+        } else {
+            delayer.schedule(() -> {
+                pendingResponses.add(() -> queueResponse(key, connection, response));
+                selector.wakeup();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void queueResponse(SelectionKey key, Connection connection, byte[] response) {
+        if (key.isValid()) {
+            connection.out.add(ByteBuffer.wrap(response));
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        while (!connection.out.isEmpty()) {
+            ByteBuffer buffer = connection.out.peek();
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            connection.out.poll();
+        }
+        if (connection.closeAfterWrite) {
+            closeConnection(key);
+            return;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        handleBufferedRequest(key, connection);
+    }
+
+    private byte[] respond(String head, Connection connection) {
+        int lineEnd = head.indexOf("\r\n");
+        String[] requestLine = (lineEnd < 0 ? head : head.substring(0, lineEnd)).split(" ");
+        String method = requestLine[0];
+        String target = requestLine.length > 1 ? requestLine[1] : "/";
+        boolean close = head.toLowerCase(Locale.ROOT).contains("\r\nconnection: close") ||
+                        (requestLine.length > 2 && "HTTP/1.0".equals(requestLine[2]));
+
+        int status;
+        byte[] body;
+        if (settings.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate) {
+            status = settings.errorStatus;
+            body = INJECTED_ERROR;
+        } else if (!"GET".equals(method)) {
+            status = 405;
+            body = NOT_ALLOWED;
+        } else {
+            String path = target;
+            String query = null;
+            int queryStart = target.indexOf('?');
+            if (queryStart >= 0) {
+                path = target.substring(0, queryStart);
+                query = target.substring(queryStart + 1);
+            }
+            body = route(path, query);
+            status = body == StubPayloads.NOT_FOUND ? 404 : 200;
+        }
+        connection.closeAfterWrite = close;
+        return httpResponse(status, body, close);
+    }
+
+    private byte[] route(String path, String query) {
+        if (path.startsWith("/users/")) {
+            int id = parseInt(path.substring("/users/".length()), -1);
+            if (!StubPayloads.userExists(id)) {
+                return StubPayloads.NOT_FOUND;
+            }
+            return bodies.computeIfAbsent("user:" + id, k -> pad(StubPayloads.userJson(id)));
+        }
+        if (path.equals("/users") || path.equals("/users/")) {
+            int page = Math.max(1, parseInt(queryParameter(query, "page"), 1));
+            return bodies.computeIfAbsent("page:" + page, k -> pad(StubPayloads.pageJson(page)));
+        }
+        return StubPayloads.NOT_FOUND;
+    }
+
+    private byte[] pad(byte[] json) {
+        if (settings.payloadPaddingBytes <= 0) {
+            return json;
+        }
+        // Whitespace before the closing brace: still the same JSON document
+        int closing = json.length - 1;
+        byte[] padded = new byte[json.length + settings.payloadPaddingBytes];
+        System.arraycopy(json, 0, padded, 0, closing);
+        Arrays.fill(padded, closing, closing + settings.payloadPaddingBytes, (byte) ' ');
+        padded[padded.length - 1] = json[closing];
+        return padded;
+    }
+
+    private static byte[] httpResponse(int status, byte[] body, boolean close) {
+        String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n" +
+                      "Content-Type: application/json; charset=utf-8\r\n" +
+                      "Content-Length: " + body.length + "\r\n" +
+                      (close ? "Connection: close\r\n" : "") +
+                      "\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] response = Arrays.copyOf(headBytes, headBytes.length + body.length);
+        System.arraycopy(body, 0, response, headBytes.length, body.length);
+        return response;
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 429: return "Too Many Requests";
+            case 500: return "Internal Server Error";
+            case 502: return "Bad Gateway";
+            case 503: return "Service Unavailable";
+            case 504: return "Gateway Timeout";
+            default: return "Status " + status;
+        }
+    }
+
+    private static int contentLength(String head) {
+        for (String line : head.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Content-Length")) {
+                return Math.max(0, parseInt(line.substring(colon + 1).trim(), 0));
+            }
+        }
+        return 0;
+    }
+
+    private static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte[] pattern) {
+        byte[] bytes = buffer.array();
+        int end = buffer.position() - pattern.length;
+        outer:
+        for (int i = 0; i <= end; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    private static class Connection {
+        private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private final Queue<ByteBuffer> out = new ArrayDeque<>();
+        private boolean closeAfterWrite;
+    }
+
+    /**
+     * Port and fault injection settings. Defaults: any free port, no faults.
+     */
+    public static class Settings {
+        private int port;
+        private long latencyMillis;
+        private long latencyJitterMillis;
+        private double errorRate;
+        private int errorStatus = 503;
+        private int payloadPaddingBytes;
+
+        /**
+         * Reads stub.port, stub.latencyMillis, stub.latencyJitterMillis, stub.errorRate,
+         * stub.errorStatus and stub.payloadPaddingBytes.
+         */
+        public static Settings fromConfig() {
+            return new Settings()
+                    .port(Config.getInt("stub.port", 0))
+                    .latency(Config.getLong("stub.latencyMillis", 0), Config.getLong("stub.latencyJitterMillis", 0))
+                    .errors(Config.getDouble("stub.errorRate", 0), Config.getInt("stub.errorStatus", 503))
+                    .payloadPaddingBytes(Config.getInt("stub.payloadPaddingBytes", 0));
+        }
+
+        public Settings port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Settings latency(long latencyMillis, long jitterMillis) {
+            this.latencyMillis = latencyMillis;
+            this.latencyJitterMillis = jitterMillis;
+            return this;
+        }
+
+        /**
+         * @param errorRate share of requests, between 0 and 1, answered with errorStatus
+         */
+        public Settings errors(double errorRate, int errorStatus) {
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Settings payloadPaddingBytes(int payloadPaddingBytes) {
+            this.payloadPaddingBytes = payloadPaddingBytes;
+            return this;
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package com.reqres.tests;
 
+import java.util.function.Consumer;
+
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.asserts.SoftAssert;
 
-import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
-import com.reqres.config.Config;
+import com.reqres.http.RequestSpecTemplates;
+import com.reqres.listeners.RequestContext;
 
 public abstract class BaseTest {
 
@@ -23,22 +26,48 @@ public abstract class BaseTest {
 		getSoftAssert().assertAll();
 	}
 
+	/**
+	 * Returns the spec for this test: the shared suite template unless the test derived
+	 * its own. Pass it to {@code given().spec(...)}; never call a mutator such as
+	 * {@code header(...)} on it, use {@link #deriveRequestSpec(Consumer)} instead.
+	 */
 	protected RequestSpecification getRequestSpec() {
 		return requestSpecThreadLocal.get();
 	}
 
+	/**
+	 * Replaces this test's spec with a copy of the suite template that the given
+	 * customizer can change, leaving the shared template untouched.
+	 */
+	protected RequestSpecification deriveRequestSpec(Consumer<RequestSpecBuilder> customizer) {
+		RequestSpecBuilder builder = RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile(), isRequestRetryEnabled());
+		customizer.accept(builder);
+		RequestSpecification spec = builder.build();
+		requestSpecThreadLocal.set(spec);
+		return spec;
+	}
+
+	/**
+	 * Whether requests that fail transiently are retried by RetryFilter. Tests that
+	 * measure error rates turn it off, so retries do not hide the errors.
+	 */
+	protected boolean isRequestRetryEnabled() {
+		return true;
+	}
+
 	@BeforeMethod // Runs before EVERY test method
-	public void setup() {
+	public void setup(ITestResult result, ITestContext testContext) {
 		softAssertThreadLocal.set(new SoftAssert());
-		RequestSpecBuilder builder = new RequestSpecBuilder()
-				.setBaseUri(Config.getBaseURI())
-				.setContentType(ContentType.JSON);
-		requestSpecThreadLocal.set(builder.build());
+		// Responses of this invocation only, for the retry analyzer and listeners
+		RequestContext.start(result, testContext);
+		// The shared template itself: a per-test copy would cost as much as building a spec
+		requestSpecThreadLocal.set(RequestSpecTemplates.get(RequestSpecTemplates.activeProfile(), isRequestRetryEnabled()));
 	}
 
 	@AfterMethod // Runs after EVERY test method (cleans up ThreadLocal)
 	public void tearDown() {
 		requestSpecThreadLocal.remove();
 		softAssertThreadLocal.remove();
+		RequestContext.end();
 	}
 }
\ No newline at end of file
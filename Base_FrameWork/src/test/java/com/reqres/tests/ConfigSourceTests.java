@@ -0,0 +1,150 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.reqres.config.ConfigSource;
+import com.reqres.listeners.RetryEngine;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * ConfigSource against its own temporary config file: layering over system properties
+ * and environment variables, typed values cached per snapshot, and reloads, explicit
+ * or triggered by the file watcher. The suite's Config is never touched.
+ */
+public class ConfigSourceTests {
+
+	@Test
+	public void testSystemPropertyBeatsEnvironmentBeatsFile() throws IOException {
+		// HOME is set in any shell; the key "home" maps to it
+		if (System.getenv("HOME") == null) {
+			throw new SkipException("HOME is not set");
+		}
+		ConfigSource config = new ConfigSource(writeConfig("home=from-file\nconfigsourcetests.fileOnly=from-file"));
+		Assert.assertEquals(config.getString("home", null), System.getenv("HOME").trim());
+		Assert.assertEquals(config.getString("configsourcetests.fileOnly", null), "from-file");
+
+		System.setProperty("home", "from-property");
+		try {
+			config.reload();
+			Assert.assertEquals(config.getString("home", null), "from-property");
+		} finally {
+			System.clearProperty("home");
+		}
+		config.reload();
+		Assert.assertEquals(config.getString("home", null), System.getenv("HOME").trim());
+	}
+
+	@Test
+	public void testTypedValuesAndDefaults() throws IOException {
+		ConfigSource config = new ConfigSource(writeConfig(
+				"count= 7 \nratio=0.25\nflag=true\nwait=PT1M\nwaitSeconds=90\nendpoint=http://localhost:1/api"));
+
+		Assert.assertEquals(config.getInt("count", 0), 7, "Values are trimmed");
+		Assert.assertEquals(config.getLong("count", 0), 7L);
+		Assert.assertEquals(config.getDouble("ratio", 0), 0.25);
+		Assert.assertTrue(config.getBoolean("flag", false));
+		Assert.assertEquals(config.getDuration("wait", null), Duration.ofMinutes(1));
+		Assert.assertEquals(config.getDuration("waitSeconds", null), Duration.ofSeconds(90));
+		Assert.assertEquals(config.getURI("endpoint"), URI.create("http://localhost:1/api"));
+
+		Assert.assertEquals(config.getInt("missing", 3), 3);
+		Assert.assertEquals(config.getString("missing", "default"), "default");
+		Assert.expectThrows(IllegalStateException.class, () -> config.getURI("missing"));
+	}
+
+	@Test
+	public void testTypedValuesCachedUntilReload() throws IOException {
+		Path file = writeConfig("endpoint=http://localhost:1/api\nwait=PT5S");
+		ConfigSource config = new ConfigSource(file);
+
+		URI endpoint = config.getURI("endpoint");
+		Duration wait = config.getDuration("wait", null);
+		Assert.assertSame(config.getURI("endpoint"), endpoint, "Parsed once per snapshot");
+		Assert.assertSame(config.getDuration("wait", null), wait);
+
+		config.reload();
+		Assert.assertNotSame(config.getURI("endpoint"), endpoint, "A reload starts a new cache");
+		Assert.assertEquals(config.getURI("endpoint"), endpoint);
+
+		Files.writeString(file, "baseURI=http://localhost:1/api\nendpoint=http://localhost:2/api\nwait=PT10S");
+		Assert.assertEquals(config.getURI("endpoint"), endpoint, "Edits apply on reload, not before");
+		config.reload();
+		Assert.assertEquals(config.getURI("endpoint"), URI.create("http://localhost:2/api"));
+		Assert.assertEquals(config.getDuration("wait", null), Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void testReloadRunsListeners() throws IOException {
+		Path file = writeConfig("limit=1");
+		ConfigSource config = new ConfigSource(file);
+		AtomicInteger seen = new AtomicInteger();
+		config.addReloadListener(() -> seen.set(config.getInt("limit", 0)));
+
+		Files.writeString(file, "baseURI=http://localhost:1/api\nlimit=2");
+		config.reload();
+
+		Assert.assertEquals(seen.get(), 2, "Listeners run after the new snapshot is in place");
+	}
+
+	@Test
+	public void testInvalidFileKeepsPreviousSnapshot() throws IOException {
+		Path file = writeConfig("limit=1");
+		ConfigSource config = new ConfigSource(file);
+		AtomicInteger reloads = new AtomicInteger();
+		config.addReloadListener(reloads::incrementAndGet);
+
+		// No baseURI, as when the file is caught mid-write
+		Files.writeString(file, "limit=2");
+		Assert.expectThrows(IllegalStateException.class, config::reload);
+
+		Assert.assertEquals(config.getInt("limit", 0), 1);
+		Assert.assertEquals(config.getRequiredString("baseURI"), "http://localhost:1/api");
+		Assert.assertEquals(reloads.get(), 0);
+	}
+
+	@Test
+	public void testWatcherAppliesEdits() throws Exception {
+		Path file = writeConfig("limit=1");
+		try (ConfigSource config = new ConfigSource(file)) {
+			config.watch();
+			// Let the watcher register before the edit
+			Thread.sleep(200);
+			Files.writeString(file, "baseURI=http://localhost:1/api\nlimit=2");
+
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (config.getInt("limit", 0) != 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			Assert.assertEquals(config.getInt("limit", 0), 2, "The watcher should reload the edited file");
+		}
+	}
+
+	@Test
+	public void testRetrySettingsFollowReload() throws IOException {
+		Path file = writeConfig("retry.maxAttempts=3");
+		ConfigSource config = new ConfigSource(file);
+		RetryEngine engine = new RetryEngine(config);
+		Assert.assertEquals(engine.getMaxAttempts(), 3);
+
+		Files.writeString(file, "baseURI=http://localhost:1/api\nretry.maxAttempts=5");
+		config.reload();
+
+		Assert.assertEquals(engine.getMaxAttempts(), 5, "An engine already in use should pick up the new limit");
+	}
+
+	private static Path writeConfig(String properties) throws IOException {
+		Path file = Files.createTempDirectory("config-source").resolve("config.properties");
+		Files.writeString(file, "baseURI=http://localhost:1/api\n" + properties);
+		file.toFile().deleteOnExit();
+		file.getParent().toFile().deleteOnExit();
+		return file;
+	}
+}
@@ -0,0 +1,82 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLHandshakeException;
+
+import com.reqres.listeners.FailureClassifier;
+import com.reqres.listeners.FailureClassifier.Category;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.HttpHostConnectException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * FailureClassifier on exceptions and response statuses: matching by the nearest known
+ * type up the class hierarchy, network errors found anywhere in the cause chain, and
+ * the status of the last response explaining a failed assertion.
+ */
+public class FailureClassifierTests {
+
+	@Test
+	public void testKnownTypesAndTheirSubclasses() {
+		Assert.assertEquals(FailureClassifier.classify(new SocketTimeoutException(), null), Category.CONNECTION_TIMEOUT);
+		Assert.assertEquals(FailureClassifier.classify(new ConnectTimeoutException(), null), Category.CONNECTION_TIMEOUT);
+		Assert.assertEquals(FailureClassifier.classify(new ConnectException(), null), Category.CONNECTION_REFUSED);
+		Assert.assertEquals(FailureClassifier.classify(new TimeoutException(), null), Category.TIMEOUT);
+		// Subclass of ConnectException, not listed itself
+		Assert.assertEquals(FailureClassifier.classify(
+				new HttpHostConnectException(new IOException(), null), null), Category.CONNECTION_REFUSED);
+		// Both listed: the nearest ancestor decides, not the order they were added in
+		Assert.assertEquals(FailureClassifier.classify(new SSLHandshakeException("handshake"), null),
+				Category.SSL_HANDSHAKE_FAILURE);
+		Assert.assertEquals(FailureClassifier.classify(new SSLException("closed"), null), Category.SSL_FAILURE);
+	}
+
+	@Test
+	public void testNetworkErrorFoundInCauseChain() {
+		Throwable wrapped = new ExecutionException(new IllegalStateException(new ConnectException("refused")));
+
+		Assert.assertEquals(FailureClassifier.classify(wrapped, null), Category.CONNECTION_REFUSED);
+		Assert.assertEquals(FailureClassifier.classify(wrapped, 500), Category.CONNECTION_REFUSED,
+				"A network error is the root of the failure, whatever an earlier response said");
+	}
+
+	@Test
+	public void testStatusExplainsFailedAssertion() {
+		AssertionError assertion = new AssertionError("expected [200] but found [503]");
+
+		Assert.assertEquals(FailureClassifier.classify(assertion, 500), Category.INTERNAL_SERVER_ERROR);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 502), Category.BAD_GATEWAY);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 503), Category.SERVICE_UNAVAILABLE);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 504), Category.GATEWAY_TIMEOUT);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 501), Category.SERVER_ERROR);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 404), Category.CLIENT_ERROR);
+		Assert.assertEquals(FailureClassifier.classify(assertion, 200), Category.ASSERTION_FAILURE);
+		Assert.assertEquals(FailureClassifier.classify(assertion, null), Category.ASSERTION_FAILURE);
+	}
+
+	@Test
+	public void testUnknownFailures() {
+		Assert.assertEquals(FailureClassifier.classify(new IllegalStateException(), null), Category.UNKNOWN);
+		Assert.assertEquals(FailureClassifier.classify(null, null), Category.UNKNOWN);
+		Assert.assertEquals(FailureClassifier.classify(null, 503), Category.SERVICE_UNAVAILABLE);
+		Assert.assertEquals(FailureClassifier.classify(new SSLException("closed"), 404), Category.CLIENT_ERROR,
+				"Only retryable network errors take precedence over the status");
+	}
+
+	@Test
+	public void testRetryableCategories() {
+		Assert.assertTrue(Category.CONNECTION_TIMEOUT.isRetryable());
+		Assert.assertTrue(Category.SERVICE_UNAVAILABLE.isRetryable());
+		Assert.assertFalse(Category.SSL_FAILURE.isRetryable());
+		Assert.assertFalse(Category.CLIENT_ERROR.isRetryable());
+		Assert.assertFalse(Category.ASSERTION_FAILURE.isRetryable());
+	}
+}
@@ -0,0 +1,110 @@
+package com.reqres.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.reqres.listeners.LatencyReportListener;
+import com.reqres.services.ApiService;
+import com.reqres.stub.StubServer;
+import com.reqres.utils.JsonUtils;
+
+import io.restassured.specification.RequestSpecification;
+
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Runs a small suite of its own with two {@code <test>} blocks in parallel against a
+ * slow stub server, and checks that each block's latency report holds its own test
+ * methods and endpoints only, every sample counted once.
+ */
+public class LatencyReportListenerTests {
+	private static final String SUITE = "LatencyReportListenerTests";
+	private static final int REQUESTS = 10;
+
+	private static volatile String stubBaseUri;
+
+	@Test
+	public void testParallelTestBlocksReportTheirOwnLatencies() throws IOException {
+		try (StubServer server = new StubServer(new StubServer.Settings().latency(20, 0))) {
+			stubBaseUri = server.getBaseUri();
+			for (String testName : List.of("users", "pages")) {
+				Files.deleteIfExists(report(testName).toPath());
+			}
+
+			XmlSuite suite = new XmlSuite();
+			suite.setName(SUITE);
+			suite.setParallel(XmlSuite.ParallelMode.TESTS);
+			suite.setThreadCount(2);
+			addTest(suite, "users", UserRequests.class);
+			addTest(suite, "pages", PageRequests.class);
+
+			TestNG testng = new TestNG();
+			testng.setUseDefaultListeners(false);
+			testng.setVerbose(0);
+			testng.setXmlSuites(List.of(suite));
+			testng.addListener(new LatencyReportListener());
+			testng.run();
+			Assert.assertFalse(testng.hasFailure(), "The inner suite should pass");
+		} finally {
+			stubBaseUri = null;
+		}
+
+		Assert.assertEquals(reportCounts("users"), Map.of(
+				"endpoint:GET /users/{id}", (long) REQUESTS,
+				"test:" + UserRequests.class.getName() + ".sendUserRequests", 1L));
+		Assert.assertEquals(reportCounts("pages"), Map.of(
+				"endpoint:GET /users", (long) REQUESTS,
+				"test:" + PageRequests.class.getName() + ".sendPageRequests", 1L));
+	}
+
+	private static void addTest(XmlSuite suite, String name, Class<?> testClass) {
+		XmlTest test = new XmlTest(suite);
+		test.setName(name);
+		test.setXmlClasses(List.of(new XmlClass(testClass)));
+	}
+
+	private static Map<String, Long> reportCounts(String testName) throws IOException {
+		List<Map<String, Object>> rows = JsonUtils.getObjectMapper().readValue(report(testName), new TypeReference<>() { });
+		return rows.stream().collect(Collectors.toMap(
+				row -> (String) row.get("name"), row -> ((Number) row.get("count")).longValue()));
+	}
+
+	private static File report(String testName) {
+		return new File("target/latency-reports/" + SUITE + "-" + testName + ".json");
+	}
+
+	private static RequestSpecification stubSpec(BaseTest test) {
+		return test.deriveRequestSpec(builder -> builder.setBaseUri(stubBaseUri));
+	}
+
+	static class UserRequests extends BaseTest {
+		@Test
+		public void sendUserRequests() throws Exception {
+			RequestSpecification spec = stubSpec(this);
+			for (int i = 0; i < REQUESTS; i++) {
+				// On ApiService's virtual threads, like the suite's fan-out tests
+				ApiService.getInstance().getUserByIdAsync(2, spec).get();
+			}
+		}
+	}
+
+	static class PageRequests extends BaseTest {
+		@Test
+		public void sendPageRequests() {
+			RequestSpecification spec = stubSpec(this);
+			for (int i = 0; i < REQUESTS; i++) {
+				ApiService.getInstance().getUsersByPage(1, spec);
+			}
+		}
+	}
+}
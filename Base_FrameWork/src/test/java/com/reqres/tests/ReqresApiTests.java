@@ -1,9 +1,16 @@
 package com.reqres.tests;
 
-import io.restassured.response.Response;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.reqres.models.User;
+import com.reqres.models.UserData;
 import com.reqres.services.ApiService;
+import com.reqres.services.TypedResponse;
+
+import io.restassured.response.Response;
 
 import org.testng.annotations.Test;
 
@@ -13,11 +20,11 @@ public class ReqresApiTests extends BaseTest {
 
 	@Test
 	public void testGetUserPass() throws Exception {
-		Response response = apiService.getUserById(2, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(2, getRequestSpec());
 
 		getSoftAssert().assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
-		User user = apiService.getUserObjectById(2, getRequestSpec());
+		User user = response.getBody();
 		getSoftAssert().assertEquals(user.getUserData().getId(), 2, "User ID should be 2");
 		getSoftAssert().assertEquals(user.getUserData().getEmail(), "janet.weaver@reqres.in", "Email should match");
 
@@ -29,9 +36,36 @@ public class ReqresApiTests extends BaseTest {
 
 	@Test
 	public void testGetUserFail() throws Exception {
-		Response response = apiService.getUserById(-1, getRequestSpec());
+		TypedResponse<User> response = apiService.getUser(-1, getRequestSpec());
 		getSoftAssert().assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-		apiService.getUserObjectById(-1, getRequestSpec());
+		response.getBody();
+	}
+
+	@Test
+	public void testGetUsersConcurrently() throws Exception {
+		List<Integer> userIds = List.of(1, 2, 3, 4, 5, 6);
+		List<Response> responses = apiService.getUsersByIds(userIds, getRequestSpec(), Duration.ofSeconds(30));
+
+		for (int i = 0; i < userIds.size(); i++) {
+			getSoftAssert().assertEquals(responses.get(i).getStatusCode(), 200, "Status code should be 200 for user " + userIds.get(i));
+			getSoftAssert().assertEquals(responses.get(i).jsonPath().getInt("data.id"), (int) userIds.get(i), "User ID should match");
+		}
+
+		assertAll();
+	}
+
+	@Test
+	public void testListAllUsers() {
+		List<UserData> users;
+		try (Stream<UserData> stream = apiService.streamAllUsers(getRequestSpec(), 2)) {
+			users = stream.toList();
+		}
+
+		getSoftAssert().assertEquals(users.size(), 12, "All users across every page should be listed");
+		getSoftAssert().assertEquals(users.stream().map(UserData::getId).collect(Collectors.toSet()).size(), users.size(),
+				"User IDs should be unique across pages");
+
+		assertAll();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.reqres.tests;
+
+import java.time.Duration;
+
+import com.reqres.load.LoadTest;
+import com.reqres.load.LoadTestResult;
+import com.reqres.services.ApiService;
+import io.restassured.specification.RequestSpecification;
+
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+/**
+ * Capacity checks that reuse the ReqresApiTests scenarios under load.
+ * Run with {@code mvn test -Pload}; tune with -Dload.rps, -Dload.concurrency,
+ * -Dload.durationSeconds and -Dload.maxErrorRate.
+ */
+public class ReqresLoadTests extends BaseTest {
+
+	private final ApiService apiService = ApiService.getInstance();
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 30));
+	private final double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+
+	@Override
+	protected boolean isRequestRetryEnabled() {
+		// The error rate is what these runs measure
+		return false;
+	}
+
+	@Test
+	public void loadGetUserByIdAtConstantRate() throws Exception {
+		double rps = Double.parseDouble(System.getProperty("load.rps", "20"));
+		// The spec lives in a ThreadLocal, so capture it before handing the scenario to load workers
+		RequestSpecification spec = getRequestSpec();
+		LoadTestResult result = LoadTest.openModel(rps, duration)
+				.run("getUserById (open, " + rps + " req/s)", () -> apiService.getUserById(2, spec));
+		Reporter.log(result.summary(), true);
+
+		getSoftAssert().assertTrue(result.getErrorRate() <= maxErrorRate, "Error rate too high: " + result.getOutcomeCounts());
+		assertAll();
+	}
+
+	@Test
+	public void loadGetUsersByPageWithFixedConcurrency() throws Exception {
+		int concurrency = Integer.getInteger("load.concurrency", 10);
+		RequestSpecification spec = getRequestSpec();
+		LoadTestResult result = LoadTest.closedModel(concurrency, duration)
+				.run("getUsersByPage (closed, " + concurrency + " workers)", () -> apiService.getUsersByPage(1, spec));
+		Reporter.log(result.summary(), true);
+
+		getSoftAssert().assertTrue(result.getErrorRate() <= maxErrorRate, "Error rate too high: " + result.getOutcomeCounts());
+		assertAll();
+	}
+}
@@ -0,0 +1,73 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.reqres.http.RequestSpecTemplates;
+import com.reqres.listeners.RequestContext;
+import com.reqres.services.ApiService;
+import com.reqres.stub.StubServer;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Every test gets the shared spec template, and its responses are still recorded in
+ * its own RequestContext, whichever thread sends them. Runs against its own stub server.
+ */
+public class RequestContextTests extends BaseTest {
+
+	private final ApiService apiService = ApiService.getInstance();
+	private StubServer server;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = new StubServer(new StubServer.Settings().errors(1.0, 404));
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.close();
+	}
+
+	@Test
+	public void testEveryTestSharesTheTemplate() {
+		Assert.assertSame(getRequestSpec(),
+				RequestSpecTemplates.get(RequestSpecTemplates.activeProfile(), isRequestRetryEnabled()),
+				"setup() should hand out the template, not a copy");
+	}
+
+	@Test
+	public void testResponseOnVirtualThreadRecordedForThisTest() throws Exception {
+		RequestSpecification spec = deriveRequestSpec(builder -> builder.setBaseUri(server.getBaseUri()));
+		Assert.assertNotSame(spec, RequestSpecTemplates.get(RequestSpecTemplates.activeProfile(), isRequestRetryEnabled()));
+
+		Response response = apiService.getUserByIdAsync(2, spec).get(30, TimeUnit.SECONDS);
+
+		Assert.assertEquals(response.getStatusCode(), 404);
+		RequestContext context = RequestContext.of(Reporter.getCurrentTestResult());
+		Assert.assertEquals(context.lastEndpoint(), "GET /users/{id}");
+		Assert.assertEquals(context.lastStatusCode(), Integer.valueOf(404));
+	}
+
+	@Test
+	public void testRequestOutsideTestNotRecorded() throws Exception {
+		RequestContext mine = RequestContext.current();
+		RequestContext[] seen = new RequestContext[1];
+		Thread outside = Thread.ofPlatform().inheritInheritableThreadLocals(false).start(() -> {
+			seen[0] = RequestContext.current();
+			apiService.getUserById(2, RequestSpecTemplates.derive(RequestSpecTemplates.activeProfile())
+					.setBaseUri(server.getBaseUri()).build());
+		});
+		outside.join(TimeUnit.SECONDS.toMillis(30));
+
+		Assert.assertNull(seen[0]);
+		Assert.assertNull(mine.lastEndpoint(), "Another thread's request must not count for this test");
+	}
+}
@@ -0,0 +1,103 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.reqres.config.ConfigSource;
+import com.reqres.listeners.RetryEngine;
+import com.reqres.listeners.RetryEngine.Decision;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * RetryEngine tuned by its own temporary config file: full-jitter backoff bounds, the
+ * attempt limit, the suite retry budget, and the circuit breaker opening, letting a
+ * single trial through once half-open, and closing again on success.
+ */
+public class RetryEngineTests {
+
+	@Test
+	public void testBackoffStaysWithinJitterCeiling() throws IOException {
+		RetryEngine engine = engine("retry.baseDelayMillis=100\nretry.maxDelayMillis=1000");
+
+		for (int attempt = 0; attempt <= 30; attempt++) {
+			long ceiling = Math.min(1000, 100L << Math.min(attempt, 20));
+			long min = Long.MAX_VALUE;
+			long max = 0;
+			for (int i = 0; i < 2000; i++) {
+				long delay = engine.backoffDelayMillis(attempt);
+				Assert.assertTrue(delay >= 0 && delay <= ceiling,
+						"Attempt " + attempt + ": " + delay + " outside [0, " + ceiling + "]");
+				min = Math.min(min, delay);
+				max = Math.max(max, delay);
+			}
+			// Full jitter spreads delays over the whole range, not around the ceiling
+			Assert.assertTrue(min < ceiling / 4 && max > ceiling * 3 / 4,
+					"Attempt " + attempt + ": delays only in [" + min + ", " + max + "] of [0, " + ceiling + "]");
+		}
+	}
+
+	@Test
+	public void testRefusedOnceAttemptLimitReached() throws IOException {
+		RetryEngine engine = engine("retry.maxAttempts=2");
+
+		Assert.assertTrue(engine.onFailure("GET /users", 1).shouldRetry());
+		Decision decision = engine.onFailure("GET /users", 2);
+
+		Assert.assertFalse(decision.shouldRetry());
+		Assert.assertTrue(decision.getReason().contains("max attempts"), decision.getReason());
+		Assert.assertFalse(engine.onFailure("GET /users", 0, 0).shouldRetry(), "A caller limit overrides the configured one");
+	}
+
+	@Test
+	public void testBudgetGrowsWithExecutionsAndThenRunsOut() throws IOException {
+		RetryEngine engine = engine("retry.minBudget=2\nretry.budgetRatio=0.5\nretry.circuitFailureThreshold=1000");
+
+		// No executions yet: only the floor
+		Assert.assertTrue(engine.onFailure("GET /users", 0).shouldRetry());
+		Assert.assertTrue(engine.onFailure("GET /users", 0).shouldRetry());
+		Decision exhausted = engine.onFailure("GET /users", 0);
+		Assert.assertFalse(exhausted.shouldRetry());
+		Assert.assertTrue(exhausted.getReason().contains("budget exhausted"), exhausted.getReason());
+
+		for (int i = 0; i < 10; i++) {
+			engine.recordExecution();
+		}
+		// 10 executions at 0.5 allow 5 retries in all, 2 of them already spent
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue(engine.onFailure("GET /users", 0).shouldRetry(), "Retry " + (i + 3) + " is within budget");
+		}
+		Assert.assertFalse(engine.onFailure("GET /users", 0).shouldRetry());
+	}
+
+	@Test
+	public void testCircuitOpensThenAllowsSingleTrialWhenHalfOpen() throws Exception {
+		RetryEngine engine = engine(
+				"retry.circuitFailureThreshold=3\nretry.circuitOpenSeconds=1\nretry.minBudget=100\nretry.baseDelayMillis=1");
+
+		Assert.assertTrue(engine.onFailure("GET /users/{id}", 0).shouldRetry());
+		Assert.assertTrue(engine.onFailure("GET /users/{id}", 0).shouldRetry());
+		Decision tripped = engine.onFailure("GET /users/{id}", 0);
+		Assert.assertFalse(tripped.shouldRetry(), "The third consecutive failure opens the circuit");
+		Assert.assertTrue(tripped.getReason().contains("circuit open"), tripped.getReason());
+		Assert.assertFalse(engine.onFailure("GET /users/{id}", 0).shouldRetry(), "Refused while open");
+		Assert.assertTrue(engine.onFailure("GET /users", 0).shouldRetry(), "Circuits are per endpoint");
+
+		Thread.sleep(1100);
+		Assert.assertTrue(engine.onFailure("GET /users/{id}", 0).shouldRetry(), "Half-open: one trial retry");
+		Assert.assertFalse(engine.onFailure("GET /users/{id}", 0).shouldRetry(), "Only one trial per open period");
+
+		engine.recordSuccess("GET /users/{id}");
+		Assert.assertTrue(engine.onFailure("GET /users/{id}", 0).shouldRetry(), "A success closes the circuit");
+	}
+
+	private static RetryEngine engine(String properties) throws IOException {
+		Path file = Files.createTempDirectory("retry-engine").resolve("config.properties");
+		Files.writeString(file, "baseURI=http://localhost:1/api\n" + properties);
+		file.toFile().deleteOnExit();
+		file.getParent().toFile().deleteOnExit();
+		return new RetryEngine(new ConfigSource(file));
+	}
+}
@@ -0,0 +1,172 @@
+package com.reqres.tests;
+
+import static io.restassured.RestAssured.given;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.reqres.filters.RetryFilter;
+import com.reqres.listeners.RetryEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Runs RetryFilter against a local server that answers 503 to the first request on
+ * each path and 200 afterwards, echoing what it received. Each filter gets its own
+ * RetryEngine, so the tests do not share a retry budget.
+ */
+public class RetryFilterTests {
+
+	private final Map<String, List<String>> received = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> authorizations = new ConcurrentHashMap<>();
+	private HttpServer server;
+	private String baseUri;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::respond);
+		server.start();
+		baseUri = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testGetRetriedAfter503() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.queryParam("page", 2)
+				.get("/get-retried");
+
+		Assert.assertEquals(response.getStatusCode(), 200, "Retry should return the second answer");
+		Assert.assertEquals(received.get("/get-retried"), List.of("GET page=2 ", "GET page=2 "),
+				"Both attempts should reach the server with the same query");
+		Assert.assertEquals(response.asString(), "GET page=2 ");
+	}
+
+	@Test
+	public void testEncodedPathAndQueryResentAsIs() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.queryParam("q", "a b&c")
+				.get("/encoded/{name}", "x y");
+
+		Assert.assertEquals(response.getStatusCode(), 200, "Retry should return the second answer");
+		Assert.assertEquals(received.get("/encoded/x y"), List.of("GET q=a b&c ", "GET q=a b&c "),
+				"The retry should not encode the URI a second time");
+	}
+
+	@Test
+	public void testPutRetriedWithSameBody() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"morpheus\"}")
+				.put("/put-retried");
+
+		Assert.assertEquals(response.getStatusCode(), 200, "Retry should return the second answer");
+		Assert.assertEquals(received.get("/put-retried"),
+				List.of("PUT null {\"name\":\"morpheus\"}", "PUT null {\"name\":\"morpheus\"}"),
+				"The retry should resend the body");
+	}
+
+	@Test
+	public void testPostNotRetried() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.body("{}")
+				.post("/post-not-retried");
+
+		Assert.assertEquals(response.getStatusCode(), 503, "POST is not idempotent and must not be retried");
+		Assert.assertEquals(received.get("/post-not-retried").size(), 1);
+	}
+
+	@Test
+	public void testFormParamsResentEncoded() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.formParam("name", "a b&c=d")
+				.put("/form-retried");
+
+		Assert.assertEquals(response.getStatusCode(), 200, "Retry should return the second answer");
+		List<String> requests = received.get("/form-retried");
+		Assert.assertEquals(requests.size(), 2);
+		for (String request : requests) {
+			String form = request.substring(request.lastIndexOf(' ') + 1);
+			Assert.assertEquals(URLDecoder.decode(form, StandardCharsets.ISO_8859_1), "name=a b&c=d",
+					"Every attempt should send the same, encoded form: " + requests);
+		}
+	}
+
+	@Test
+	public void testMultipartAndAuthenticationResent() {
+		Response response = given().baseUri(baseUri).filter(newRetryFilter())
+				.auth().preemptive().basic("morpheus", "leader")
+				.multiPart("file", "part.txt", "multipart payload".getBytes(StandardCharsets.UTF_8))
+				.put("/multipart-retried");
+
+		Assert.assertEquals(response.getStatusCode(), 200, "Retry should return the second answer");
+		List<String> requests = received.get("/multipart-retried");
+		Assert.assertEquals(requests.size(), 2);
+		Assert.assertTrue(requests.get(1).contains("multipart payload"), "The retry should resend the part: " + requests);
+		Assert.assertEquals(authorizations.get("/multipart-retried"),
+				List.of("Basic bW9ycGhldXM6bGVhZGVy", "Basic bW9ycGhldXM6bGVhZGVy"),
+				"Both attempts should be authenticated once");
+	}
+
+	@Test
+	public void testRetriesStopWhenBudgetExhausted() {
+		// Four requests allow max(retry.minBudget = 3, 10% of 4) = 3 retries
+		RetryFilter filter = newRetryFilter();
+		for (int i = 1; i <= 4; i++) {
+			Response response = given().baseUri(baseUri).filter(filter).get("/budget-" + i);
+			if (i <= 3) {
+				Assert.assertEquals(response.getStatusCode(), 200, "Request " + i + " should be retried");
+			} else {
+				Assert.assertEquals(response.getStatusCode(), 503, "The budget should be spent by request " + i);
+				Assert.assertEquals(received.get("/budget-" + i).size(), 1);
+			}
+		}
+	}
+
+	private static RetryFilter newRetryFilter() {
+		return new RetryFilter(new RetryEngine());
+	}
+
+	private void respond(HttpExchange exchange) throws IOException {
+		try (exchange; InputStream in = exchange.getRequestBody()) {
+			String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getQuery() + " "
+					+ new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			List<String> requests = received.computeIfAbsent(exchange.getRequestURI().getPath(),
+					path -> new CopyOnWriteArrayList<>());
+			requests.add(request);
+			String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			if (authorization != null) {
+				authorizations.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new CopyOnWriteArrayList<>())
+						.add(authorization);
+			}
+
+			byte[] body = request.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(requests.size() == 1 ? 503 : 200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+}
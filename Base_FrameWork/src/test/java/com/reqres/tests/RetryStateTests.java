@@ -0,0 +1,118 @@
+package com.reqres.tests;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.reqres.config.ConfigSource;
+import com.reqres.listeners.RetryState;
+
+import org.testng.Assert;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+/**
+ * RetryState limited by its own temporary config file, fed with stand-in test results:
+ * one count per invocation, counts expiring after the TTL, and the least recently
+ * updated invocations evicted once the cap is exceeded.
+ */
+public class RetryStateTests {
+	private final ITestNGMethod method = proxy(ITestNGMethod.class);
+	private final Object instance = new Object();
+
+	@Test
+	public void testCountsKeptPerInvocation() throws IOException {
+		RetryState state = state("retry.state.ttlMinutes=30");
+
+		Assert.assertEquals(state.incrementRetryCount(result(method, instance, "row", 1)), 1);
+		Assert.assertEquals(state.incrementRetryCount(result(method, instance, "row", 1)), 2,
+				"Equal parameters are the same invocation");
+		Assert.assertEquals(state.incrementRetryCount(result(method, instance, "row", 2)), 1, "Another data provider row");
+		Assert.assertEquals(state.incrementRetryCount(result(method, new Object(), "row", 1)), 1, "Another test instance");
+		Assert.assertEquals(state.incrementRetryCount(result(proxy(ITestNGMethod.class), instance, "row", 1)), 1,
+				"Another method");
+		Assert.assertEquals(state.size(), 4);
+
+		Assert.assertEquals(state.getRetryCount(result(method, instance, "row", 1)), 2);
+		Assert.assertEquals(state.endInvocation(result(method, instance, "row", 1)), 2);
+		Assert.assertEquals(state.getRetryCount(result(method, instance, "row", 1)), 0, "Forgotten once ended");
+		Assert.assertEquals(state.size(), 3);
+	}
+
+	@Test
+	public void testCountsExpireAfterTtl() throws IOException {
+		RetryState state = state("retry.state.ttlMinutes=0");
+		ITestResult first = result(method, instance, 1);
+
+		Assert.assertEquals(state.incrementRetryCount(first), 1);
+		waitForClockToAdvance();
+		Assert.assertEquals(state.getRetryCount(first), 0, "Expired counts read as zero");
+		Assert.assertEquals(state.incrementRetryCount(first), 1, "An expired count starts over");
+
+		waitForClockToAdvance();
+		state.incrementRetryCount(result(method, instance, 2));
+		Assert.assertEquals(state.size(), 1, "Expired invocations are swept");
+	}
+
+	@Test
+	public void testLeastRecentlyUpdatedEvictedOverCap() throws IOException {
+		RetryState state = state("retry.state.ttlMinutes=30\nretry.state.maxEntries=2");
+		ITestResult oldest = result(method, instance, 1);
+		ITestResult middle = result(method, instance, 2);
+		ITestResult newest = result(method, instance, 3);
+
+		state.incrementRetryCount(oldest);
+		waitForClockToAdvance();
+		state.incrementRetryCount(middle);
+		waitForClockToAdvance();
+		state.incrementRetryCount(newest);
+
+		Assert.assertEquals(state.size(), 2);
+		Assert.assertEquals(state.getRetryCount(oldest), 0, "The least recently updated invocation is evicted");
+		Assert.assertEquals(state.getRetryCount(middle), 1);
+		Assert.assertEquals(state.getRetryCount(newest), 1);
+	}
+
+	private static void waitForClockToAdvance() {
+		long start = System.nanoTime();
+		while (System.nanoTime() == start) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private static ITestResult result(ITestNGMethod method, Object instance, Object... parameters) {
+		return (ITestResult) Proxy.newProxyInstance(RetryStateTests.class.getClassLoader(),
+				new Class<?>[] { ITestResult.class }, (proxy, invoked, args) -> {
+					switch (invoked.getName()) {
+						case "getMethod": return method;
+						case "getInstance": return instance;
+						case "getParameters": return parameters;
+						case "hashCode": return System.identityHashCode(proxy);
+						case "equals": return proxy == args[0];
+						default: throw new UnsupportedOperationException(invoked.getName());
+					}
+				});
+	}
+
+	private static <T> T proxy(Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(RetryStateTests.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, invoked, args) -> {
+					switch (invoked.getName()) {
+						case "hashCode": return System.identityHashCode(proxy);
+						case "equals": return proxy == args[0];
+						case "toString": return type.getSimpleName() + "@" + System.identityHashCode(proxy);
+						default: throw new UnsupportedOperationException(invoked.getName());
+					}
+				}));
+	}
+
+	private static RetryState state(String properties) throws IOException {
+		Path file = Files.createTempDirectory("retry-state").resolve("config.properties");
+		Files.writeString(file, "baseURI=http://localhost:1/api\n" + properties);
+		file.toFile().deleteOnExit();
+		file.getParent().toFile().deleteOnExit();
+		return new RetryState(new ConfigSource(file));
+	}
+}
@@ -0,0 +1,77 @@
+package com.reqres.tests;
+
+import static io.restassured.RestAssured.given;
+
+import java.io.IOException;
+
+import com.reqres.models.User;
+import com.reqres.stub.StubPayloads;
+import com.reqres.stub.StubServer;
+import com.reqres.utils.JsonUtils;
+
+import io.restassured.response.Response;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the stub server's fault injection, each test against its own server.
+ * The suite as a whole runs against the stub with {@code mvn test -Pstub}.
+ */
+public class StubServerTests {
+
+	@Test
+	public void testLatencyInjected() throws IOException {
+		try (StubServer server = new StubServer(new StubServer.Settings().latency(200, 0))) {
+			long start = System.nanoTime();
+			Response response = given().baseUri(server.getBaseUri()).get("/users/2");
+			long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+			Assert.assertEquals(response.getStatusCode(), 200);
+			Assert.assertTrue(elapsedMillis >= 200, "Response should be delayed by 200 ms, took " + elapsedMillis + " ms");
+		}
+	}
+
+	@Test
+	public void testErrorRateInjected() throws IOException {
+		try (StubServer server = new StubServer(new StubServer.Settings().errors(0.5, 503))) {
+			int requests = 200;
+			int errors = 0;
+			for (int i = 0; i < requests; i++) {
+				int status = given().baseUri(server.getBaseUri()).get("/users/2").getStatusCode();
+				Assert.assertTrue(status == 200 || status == 503, "Unexpected status " + status);
+				if (status == 503) {
+					errors++;
+				}
+			}
+			// Binomial(200, 0.5): 60..140 is more than five standard deviations either side
+			Assert.assertTrue(errors >= 60 && errors <= 140, "About half the requests should fail, got " + errors);
+		}
+	}
+
+	@Test
+	public void testEveryRequestFailsAtFullErrorRate() throws IOException {
+		try (StubServer server = new StubServer(new StubServer.Settings().errors(1.0, 429))) {
+			for (int i = 0; i < 5; i++) {
+				Response response = given().baseUri(server.getBaseUri()).get("/users?page=1");
+				Assert.assertEquals(response.getStatusCode(), 429);
+				Assert.assertTrue(response.asString().contains("injected"), "Body should name the injected error");
+			}
+		}
+	}
+
+	@Test
+	public void testPaddedBodyStillBinds() throws IOException {
+		int padding = 64 * 1024;
+		try (StubServer server = new StubServer(new StubServer.Settings().payloadPaddingBytes(padding))) {
+			Response response = given().baseUri(server.getBaseUri()).get("/users/2");
+
+			Assert.assertEquals(response.getStatusCode(), 200);
+			byte[] body = response.asByteArray();
+			Assert.assertEquals(body.length, StubPayloads.userJson(2).length + padding, "Body should carry the padding");
+			User user = JsonUtils.read(body, User.class);
+			Assert.assertEquals(user.getUserData().getId(), 2);
+			Assert.assertEquals(user.getUserData().getEmail(), "janet.weaver@reqres.in");
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.reqres.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Joins a batch of concurrently issued requests against a single deadline.
+ */
+public class FanOut {
+
+    private FanOut() {
+        // Utility class
+    }
+
+    /**
+     * Waits for every future to complete and returns their results in the same order.
+     * If the deadline passes first, the futures that are still running are cancelled
+     * and a TimeoutException is thrown. Cancelling a CompletableFuture does not stop
+     * the work behind it; the async variants in ApiService interrupt their request
+     * when cancelled, other futures may keep running.
+     *
+     * @param futures  the in-flight requests
+     * @param deadline the total time allowed for the whole batch
+     * @return the results, in the order of the given futures
+     */
+    public static <T> List<T> joinAll(List<CompletableFuture<T>> futures, Duration deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new TimeoutException("Only " + futures.stream().filter(f -> !f.isCancelled()).count() +
+                                       " of " + futures.size() + " requests completed within " + deadline);
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+}
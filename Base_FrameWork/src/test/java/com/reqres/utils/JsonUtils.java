@@ -1,14 +1,94 @@
 package com.reqres.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.reqres.models.Support;
+import com.reqres.models.User;
+import com.reqres.models.UserData;
+import com.reqres.models.UserPage;
 
+/**
+ * Shared Jackson configuration.
+ * <p>
+ * The mapper uses the Blackbird module, which replaces reflective getter/setter calls
+ * with generated lambdas. Readers and writers are immutable and thread-safe, so one
+ * is built per type and reused; the model classes are registered up front so the
+ * first test does not pay for building their (de)serializers. Bind from bytes or
+ * streams ({@link #read(InputStream, Class)}) rather than from a String.
+ * <p>
+ * Output is compact; use {@link #toPrettyJson(Object)} for logs and reports meant
+ * to be read by people.
+ */
 public class JsonUtils {
     private static final ObjectMapper mapper = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT)
+            .registerModule(new BlackbirdModule())
             .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
 
+    private static final ObjectWriter prettyWriter = mapper.writerWithDefaultPrettyPrinter();
+
+    private static final ClassValue<ObjectReader> readers = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+        }
+    };
+
+    static {
+        for (Class<?> model : new Class<?>[] {User.class, UserData.class, Support.class, UserPage.class}) {
+            readers.get(model);
+            writers.get(model);
+        }
+    }
+
     public static ObjectMapper getObjectMapper() {
         return mapper;
     }
-} 
\ No newline at end of file
+
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.get(type);
+    }
+
+    public static ObjectWriter writerFor(Class<?> type) {
+        return writers.get(type);
+    }
+
+    public static <T> T read(InputStream in, Class<T> type) throws IOException {
+        return readers.get(type).readValue(in);
+    }
+
+    public static <T> T read(byte[] json, Class<T> type) throws IOException {
+        return readers.get(type).readValue(json);
+    }
+
+    public static byte[] toJsonBytes(Object value) throws IOException {
+        return writers.get(value.getClass()).writeValueAsBytes(value);
+    }
+
+    public static String toJson(Object value) throws IOException {
+        return writers.get(value.getClass()).writeValueAsString(value);
+    }
+
+    /**
+     * Indented output, for debug logging and reports only.
+     */
+    public static String toPrettyJson(Object value) throws IOException {
+        return prettyWriter.writeValueAsString(value);
+    }
+
+    public static ObjectWriter getPrettyWriter() {
+        return prettyWriter;
+    }
+}